@@ -18,23 +18,91 @@ public class Segment extends GeometricObject
 
 	protected double _length;
 	protected double _slope;
+	protected int _hash;
+
+	//
+	// Computed once, at construction
+	//
+	protected boolean _vertical;
+	protected boolean _horizontal;
+
+	// The line through the segment: _a x + _b y = _c with (_a, _b) a unit normal
+	protected double _a;
+	protected double _b;
+	protected double _c;
+
+	// Bounding box
+	protected double _minX;
+	protected double _minY;
+	protected double _maxX;
+	protected double _maxY;
 
 	public Point getPoint1() { return _point1; }
 	public Point getPoint2() { return _point2; }
 	public double length() { return _length; }
-	public double slope()
-	{
-		try { return GeometryUtilities.slope(_point1, _point2); }
-		catch(ArithmeticException ae) { return Double.POSITIVE_INFINITY; }
-	}
+	public double slope() { return _slope; }
+
+	/*
+	 * The (normalized) line through this segment: a x + b y = c where (a, b) is a unit
+	 * normal with a > 0 (or a == 0 and b > 0); all zero for a degenerate segment.
+	 */
+	public double lineA() { return _a; }
+	public double lineB() { return _b; }
+	public double lineC() { return _c; }
+
+	public double minX() { return _minX; }
+	public double minY() { return _minY; }
+	public double maxX() { return _maxX; }
+	public double maxY() { return _maxY; }
 
 	public Segment(Segment in) { this(in._point1, in._point2); }
+
+	/*
+	 * The endpoints are stored in canonical (lexicographic) order: getPoint1() <= getPoint2()
+	 */
 	public Segment(Point p1, Point p2)
 	{
+		if (p1.compareTo(p2) > 0)
+		{
+			Point tmp = p1;
+			p1 = p2;
+			p2 = tmp;
+		}
+
 		_point1 = p1;
 		_point2 = p2;
+		_hash = p1.hashCode() + p2.hashCode();
+
+		double dx = p2.getX() - p1.getX();
+		double dy = p2.getY() - p1.getY();
+
+		_length = GeometryUtilities.distance(p1, p2);
+
+		_vertical = MathUtilities.doubleEquals(p1.getX(), p2.getX());
+		_horizontal = MathUtilities.doubleEquals(p1.getY(), p2.getY());
+
+		_slope = _vertical ? Double.POSITIVE_INFINITY : dy / dx;
+
+		if (_length > 0)
+		{
+			double sign = (dy > 0 || (dy == 0 && dx < 0)) ? 1 : -1;
+			_a = sign * dy / _length;
+			_b = -sign * dx / _length;
+			_c = _a * p1.getX() + _b * p1.getY();
+		}
+
+		_minX = Math.min(p1.getX(), p2.getX());
+		_minY = Math.min(p1.getY(), p2.getY());
+		_maxX = Math.max(p1.getX(), p2.getX());
+		_maxY = Math.max(p1.getY(), p2.getY());
 	}
 
+	/*
+	 * @param x, y -- the coordinates of a point
+	 * @return the distance from the point to the line (infinite) through this segment
+	 */
+	public double lineDistance(double x, double y) { return Math.abs(_a * x + _b * y - _c); }
+
 	/*
 	 * @param that -- a segment (as a segment: finite)
 	 * @return the midpoint of this segment (finite)
@@ -94,15 +162,23 @@ public class Segment extends GeometricObject
 		return null;
 	}
 
+	/*
+	 * Endpoints are in canonical order, so equal segments have equal first and equal
+	 * second endpoints. The exception: when the x-coordinates of the endpoints are within
+	 * 2 * EPSILON of each other, an equal segment may order its endpoints the other way.
+	 */
 	@Override
 	public boolean equals(Object obj)
 	{
-		if (obj == null) return false;
-		
+		if (this == obj) return true;
+
 		if (!(obj instanceof Segment)) return false;
 		Segment that = (Segment)obj;
 
-		return this.has(that.getPoint1()) && this.has(that.getPoint2());
+		if (_point1.equals(that._point1) && _point2.equals(that._point2)) return true;
+
+		return _point2.getX() - _point1.getX() < 2 * MathUtilities.EPSILON &&
+			   _point1.equals(that._point2) && _point2.equals(that._point1);
 	}
 
 	/*
@@ -120,12 +196,12 @@ public class Segment extends GeometricObject
 	/*
 	 * @return true if this segment is horizontal (by analysis of both endpoints having same y-coordinate)
 	 */
-	public boolean isHorizontal() { return MathUtilities.doubleEquals(_point1.getY(), _point2.getY()); }
+	public boolean isHorizontal() { return _horizontal; }
 
 	/*
 	 * @return true if this segment is vertical (by analysis of both endpoints having same x-coordinate)
 	 */
-	public boolean isVertical() { return MathUtilities.doubleEquals(_point1.getX(), _point2.getX()); }
+	public boolean isVertical() { return _vertical; }
 
 	/*
 	 * @param pt -- one of the endpoints of this segment
@@ -139,10 +215,13 @@ public class Segment extends GeometricObject
 		return null;
 	}
 
+	/*
+	 * Computed at construction (see Point.hashCode)
+	 */
 	@Override
 	public int hashCode()
 	{
-		return _point1.hashCode() +_point2.hashCode();
+		return _hash;
 	}
 
 	/*
@@ -156,6 +235,7 @@ public class Segment extends GeometricObject
 	{
 		if (this.equals(that)) return false;
 		if (!isCollinearWith(that)) return false;
+		if (SegmentDelegate.boundingBoxesApart(this, that)) return true;
 		// if either segment has one endpoint that lies the other segment 
 		if (SegmentDelegate.pointLiesBetweenEndpoints(that, _point1) ||
 				SegmentDelegate.pointLiesBetweenEndpoints(that, _point2)) return false;
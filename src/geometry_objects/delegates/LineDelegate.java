@@ -27,7 +27,8 @@ public class LineDelegate
         {
             return MathUtilities.doubleEquals(thisS.getPoint1().getY(), that.getPoint2().getY());
         }
-        // Slopes equate
-        return MathUtilities.doubleEquals(thisS.slope(), that.slope());
+        // Slopes equate and the lines pass through the same point
+        return MathUtilities.doubleEquals(thisS.slope(), that.slope()) &&
+               thisS.lineDistance(that.getPoint1().getX(), that.getPoint1().getY()) < MathUtilities.EPSILON;
     }
 }
@@ -2,6 +2,7 @@ package geometry_objects.delegates;
 
 import geometry_objects.points.Point;
 import geometry_objects.Segment;
+import utilities.math.MathUtilities;
 import utilities.math.analytic_geometry.GeometryUtilities;
 
 /*
@@ -74,4 +75,37 @@ public class SegmentDelegate extends FigureDelegate
 
 		return GeometryUtilities.between(pt, segment.getPoint1(), segment.getPoint2());
 	}
+
+	/*
+	 * @param x, y -- the coordinates of a point
+	 * @return true if the point is on the segment (EXcluding endpoints); finite examination only
+	 */
+	public static boolean pointLiesBetweenEndpoints(Segment segment, double x, double y)
+	{
+		if (isEndpoint(segment.getPoint1(), x, y) || isEndpoint(segment.getPoint2(), x, y)) return false;
+
+		return GeometryUtilities.between(x, y, segment.getPoint1(), segment.getPoint2());
+	}
+
+	/*
+	 * A point between the endpoints of a segment (GeometryUtilities.between) lies at most
+	 * sqrt(2) * EPSILON outside the segment's bounding box; boxes further apart than
+	 * 3 * EPSILON therefore cannot share such a point.
+	 *
+	 * @param thisS -- a segment
+	 * @param that -- a segment
+	 * @return true if the bounding boxes of the segments are (well) separated
+	 */
+	public static boolean boundingBoxesApart(Segment thisS, Segment that)
+	{
+		double gap = 3 * MathUtilities.EPSILON;
+
+		return thisS.maxX() + gap < that.minX() || that.maxX() + gap < thisS.minX() ||
+			   thisS.maxY() + gap < that.minY() || that.maxY() + gap < thisS.minY();
+	}
+
+	private static boolean isEndpoint(Point endpoint, double x, double y)
+	{
+		return MathUtilities.doubleEquals(endpoint.getX(), x) && MathUtilities.doubleEquals(endpoint.getY(), y);
+	}
 }
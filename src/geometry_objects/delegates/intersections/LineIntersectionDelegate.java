@@ -2,7 +2,6 @@ package geometry_objects.delegates.intersections;
 
 import geometry_objects.points.Point;
 import geometry_objects.Segment;
-import utilities.OutTriple;
 
 /*
  * This class treats all lines as infinite (in both directions)
@@ -13,7 +12,7 @@ public class LineIntersectionDelegate
      * <Line, Line> intersection
      * @param thisS -- (this Segment)
      * @param that -- a Segment to intersect with
-     * @return the point at which these lines (infinite) intersection; null for coinciding lines
+     * @return the point at which these lines (infinite) intersection; null for coinciding or parallel lines
      */
     public static Point intersection(Segment thisS, Segment that)
     {
@@ -24,72 +23,79 @@ public class LineIntersectionDelegate
         Point shared = thisS.sharedVertex(that);
         if (shared != null) return shared;
 
-        double a, b, c, d, e, f;
-        final String name = "";
+        double[] xy = new double[2];
+        if (!intersection(thisS, that, xy)) return null;
 
-        if (thisS.isVertical() && that.isHorizontal()) return new Point(name, thisS.getPoint1().getX(), that.getPoint1().getY());
+        return new Point(xy[0], xy[1]);
+    }
+
+    /*
+     * <Line, Line> intersection: a primitive kernel that allocates nothing.
+     * The special cases of intersection(Segment, Segment) are not checked.
+     *
+     * @param thisS -- (this Segment)
+     * @param that -- a Segment to intersect with
+     * @param out -- scratch storage provided by the caller; receives (x, y) in out[0], out[1]
+     * @return true if the lines (infinite) meet in a single point; false for parallel lines
+     */
+    public static boolean intersection(Segment thisS, Segment that, double[] out)
+    {
+        if (thisS.isVertical() && that.isHorizontal()) return set(out, thisS.getPoint1().getX(), that.getPoint1().getY());
 
-        if (that.isVertical() && thisS.isHorizontal()) return new Point(name, that.getPoint1().getX(), thisS.getPoint1().getY());
+        if (that.isVertical() && thisS.isHorizontal()) return set(out, that.getPoint1().getX(), thisS.getPoint1().getY());
+
+        //
+        // ax + by = e
+        // cx + dy = f
+        // (normalized at construction of each segment)
+        //
+        double a = thisS.lineA();
+        double b = thisS.lineB();
+        double e = thisS.lineC();
+
+        double c = that.lineA();
+        double d = that.lineB();
+        double f = that.lineC();
 
-        OutTriple<Double, Double, Double> out = new OutTriple<Double, Double, Double>(); 
         if (thisS.isVertical())
         {
-            makeLine(that.getPoint1().getX(), that.getPoint1().getY(), that.getPoint2().getX(), that.getPoint2().getY(), out);// a, out b, out e);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
-            return new Point(name, thisS.getPoint1().getX(), evaluateYGivenX(a, b, e, thisS.getPoint1().getX()));
+            if (that.isVertical()) return false;
+
+            double x = thisS.getPoint1().getX();
+            return set(out, x, evaluateYGivenX(c, d, f, x));
         }
         if (that.isVertical())
         {
-            makeLine(thisS.getPoint1().getX(), thisS.getPoint1().getY(), thisS.getPoint2().getX(), thisS.getPoint2().getY(), out);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
-            return new Point(name, that.getPoint1().getX(), evaluateYGivenX(a, b, e, that.getPoint1().getX()));
+            double x = that.getPoint1().getX();
+            return set(out, x, evaluateYGivenX(a, b, e, x));
         }
         if (thisS.isHorizontal())
         {
-            makeLine(that.getPoint1().getX(), that.getPoint1().getY(), that.getPoint2().getX(), that.getPoint2().getY(), out);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
+            if (that.isHorizontal()) return false;
 
-            return new Point(name, evaluateXGivenY(a, b, e, thisS.getPoint1().getY()), thisS.getPoint1().getY());
+            double y = thisS.getPoint1().getY();
+            return set(out, evaluateXGivenY(c, d, f, y), y);
         }
         if (that.isHorizontal())
         {
-            makeLine(thisS.getPoint1().getX(), thisS.getPoint1().getY(), thisS.getPoint2().getX(), thisS.getPoint2().getY(), out);
-            a = out.getFirst();
-            b = out.getSecond();
-            e = out.getThird();
-
-            return new Point(name, evaluateXGivenY(a, b, e, that.getPoint1().getY()), that.getPoint1().getY());
+            double y = that.getPoint1().getY();
+            return set(out, evaluateXGivenY(a, b, e, y), y);
         }
 
-        //
-        // ax + by = e
-        // cx + dy = f
-        // 
+        double overallDeterminant = determinant(a, b, c, d);
+        if (overallDeterminant == 0) return false;
 
-        makeLine(thisS.getPoint1().getX(), thisS.getPoint1().getY(), thisS.getPoint2().getX(), thisS.getPoint2().getY(), out);
-        a = out.getFirst();
-        b = out.getSecond();
-        e = out.getThird();
-
-        makeLine(that.getPoint1().getX(), that.getPoint1().getY(), that.getPoint2().getX(), that.getPoint2().getY(), out);
-        c = out.getFirst();
-        d = out.getSecond();
-        f = out.getThird();
-
-        
-        double overallDeterminant = a * d - b * c;
-        double x = determinant(e, b, f, d) / overallDeterminant;
-        double y = determinant(a, e, c, f) / overallDeterminant;
+        return set(out, determinant(e, b, f, d) / overallDeterminant,
+                        determinant(a, e, c, f) / overallDeterminant);
+    }
 
-        return new Point(name, x, y);
+    private static boolean set(double[] out, double x, double y)
+    {
+        out[0] = x;
+        out[1] = y;
+        return true;
     }
-    
+
     //
     // Determine the intersection point of the two segments
     //
@@ -102,16 +108,6 @@ public class LineIntersectionDelegate
         return a * d - b * c;
     }
 
-    private static void makeLine(double x_1, double y_1, double x_2, double y_2, OutTriple<Double, Double, Double> out)
-    {
-        double slope = (y_2 - y_1) / (x_2 - x_1);
-        double a = - slope;
-        double b = 1;
-        double c = y_2 - slope * x_2;
-
-        out.set(a, b, c);
-    }
-
     private static double evaluateYGivenX(double a, double b, double e, double x)
     {
         // ax + by = e
@@ -1,6 +1,7 @@
 package geometry_objects.delegates.intersections;
 
 import geometry_objects.delegates.FigureDelegate;
+import geometry_objects.delegates.SegmentDelegate;
 import geometry_objects.points.Point;
 import geometry_objects.Segment;
 
@@ -14,15 +15,35 @@ public class SegmentIntersectionDelegate extends FigureDelegate
      */
     public static Point findIntersection(Segment thisS, Segment that)
     {
+        return findIntersection(thisS, that, new double[2]);
+    }
+
+    /*
+     * <Segment, Segment> intersection; a point is constructed only if the segments cross
+     * @param thisS -- (this Segment)
+     * @param that -- a Segment to intersect with
+     * @param scratch -- scratch storage (at least 2 doubles) provided by the caller
+     * @return the intersection of @thisS and @that
+     */
+    public static Point findIntersection(Segment thisS, Segment that, double[] scratch)
+    {
+        // Segments far apart cannot cross
+        if (SegmentDelegate.boundingBoxesApart(thisS, that)) return null;
+
+        // Special Cases: an endpoint, or collinear segments, do not lie between the endpoints
+        if (thisS.sharedVertex(that) != null) return null;
+
+        if (thisS.coincideWithoutOverlap(that)) return null;
+
         // <line, line> intersection
-        Point inter = LineIntersectionDelegate.intersection(thisS, that);
+        if (!LineIntersectionDelegate.intersection(thisS, that, scratch)) return null;
  
         // Point lies on both segments
         
-        if (!thisS.pointLiesBetweenEndpoints(inter)) return null;
+        if (!SegmentDelegate.pointLiesBetweenEndpoints(thisS, scratch[0], scratch[1])) return null;
 
-        if (!that.pointLiesBetweenEndpoints(inter)) return null;
+        if (!SegmentDelegate.pointLiesBetweenEndpoints(that, scratch[0], scratch[1])) return null;
         
-        return inter;        
+        return new Point(scratch[0], scratch[1]);
     }
 }
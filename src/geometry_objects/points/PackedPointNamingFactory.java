@@ -0,0 +1,245 @@
+package geometry_objects.points;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import utilities.math.analytic_geometry.IntCoordinateIndex;
+import utilities.storage.FigureStorage;
+
+/*
+ * A PointNamingFactory whose points live in packed storage (e.g., off-heap in a
+ * DirectStorage) instead of a map of Point objects: each point is an (x, y, name
+ * code) record, generated names are stored as their position in the sequence of
+ * names (see PointNames) and the indices hold ints. Point objects are created as
+ * they are requested, so points returned for the same coordinates are equal but
+ * not necessarily identical.
+ *
+ * Behavior is that of PointNamingFactory, except that naming a stored unnamed point
+ * renames it in place; it keeps its position in getAllPoints().
+ */
+public class PackedPointNamingFactory implements PointFactory
+{
+	// The position of the next name in the sequence of generated names (see PointNames)
+	private int _generated = 0;
+
+	protected FigureStorage _storage;
+
+	// The stored points by coordinates
+	protected IntCoordinateIndex _ids;
+
+	// Name codes; the stored point by generated name (by position; -1 if none)
+	// and by other name (the first stored point of a given name)
+	protected PointNames _codes;
+	protected int[] _generatedIds;
+	protected Map<String, Integer> _namedIds;
+
+	/**
+	 * @param storage -- (empty) storage for the points
+	 */
+	public PackedPointNamingFactory(FigureStorage storage)
+	{
+		_storage = storage;
+		_ids = new IntCoordinateIndex(_storage::x, _storage::y);
+		_codes = new PointNames();
+		_generatedIds = new int[16];
+		Arrays.fill(_generatedIds, -1);
+		_namedIds = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * @param points -- a list of points, named or not named
+	 *                  (of equal points, the first is kept)
+	 * @param storage -- (empty) storage for the points
+	 */
+	public PackedPointNamingFactory(List<Point> points, FigureStorage storage)
+	{
+		this(storage);
+
+		for (Point point : points)
+			put(point);
+	}
+
+	@Override
+	public Point put(Point pt)
+	{
+		int existing = _ids.get(pt.getX(), pt.getY());
+		if (existing != -1) return point(existing);
+
+		store(pt.getName(), pt.getX(), pt.getY());
+		return pt;
+	}
+
+	@Override
+	public Point put(double x, double y)
+	{
+		// A name is generated (and consumed) whether or not the point exists
+		String name = getCurrentName();
+
+		int existing = _ids.get(x, y);
+		if (existing != -1) return point(existing);
+
+		return point(store(name, x, y));
+	}
+
+	@Override
+	public Point put(String name, double x, double y)
+	{
+		int existing = _ids.get(x, y, id -> _storage.name(id) != PointNames.UNNAMED);
+		if (existing != -1) return point(existing);
+
+		if (name == Point.ANONYMOUS) name = getCurrentName();
+
+		// A (now named) point names the equal unnamed point
+		int unnamed = _ids.get(x, y, id -> _storage.name(id) == PointNames.UNNAMED);
+		if (unnamed == -1) return point(store(name, x, y));
+
+		_storage.setName(unnamed, _codes.encode(name));
+		indexName(unnamed);
+		return point(unnamed);
+	}
+
+	@Override
+	public Point get(double x, double y)
+	{
+		// Strict: the coordinates must match exactly
+		int existing = _ids.get(x, y);
+		if (existing == -1 || _storage.x(existing) != x || _storage.y(existing) != y) return null;
+
+		return point(existing);
+	}
+
+	@Override
+	public Point get(Point pt)
+	{
+		int existing = _ids.get(pt.getX(), pt.getY());
+
+		return existing == -1 ? null : point(existing);
+	}
+
+	@Override
+	public Point get(String name)
+	{
+		int id = -1;
+		int index = PointNames.generatedIndex(name);
+		if (index != -1) id = index < _generatedIds.length ? _generatedIds[index] : -1;
+		else if (_namedIds.containsKey(name)) id = _namedIds.get(name);
+		else if (Point.ANONYMOUS.equals(name))
+		{
+			// Unnamed points are not indexed by name
+			for (int p = 0; p < _storage.pointCount() && id == -1; p++)
+			{
+				if (_storage.name(p) == PointNames.UNNAMED) id = p;
+			}
+		}
+
+		return id == -1 ? null : point(id);
+	}
+
+	@Override
+	public boolean contains(double x, double y) { return _ids.get(x, y) != -1; }
+
+	@Override
+	public boolean contains(Point p) { return contains(p.getX(), p.getY()); }
+
+	/**
+	 * @return acquires and returns the next name in sequence (see PointNames.generated)
+	 */
+	protected String getCurrentName()
+	{
+		return PointNames.generated(_generated++);
+	}
+
+	/**
+	 * @param id -- the id of a stored point
+	 * @return a Point for the stored point
+	 */
+	private Point point(int id)
+	{
+		return new Point(_codes.decode(_storage.name(id)), _storage.x(id), _storage.y(id));
+	}
+
+	/*
+	 * @return the id of the new point
+	 */
+	private int store(String name, double x, double y)
+	{
+		int id = _storage.addPoint(x, y, _codes.encode(name));
+		_ids.put(id);
+		indexName(id);
+		return id;
+	}
+
+	private void indexName(int id)
+	{
+		int code = _storage.name(id);
+		if (code == PointNames.UNNAMED) return;
+
+		if (code < 0)
+		{
+			_namedIds.putIfAbsent(_codes.decode(code), id);
+			return;
+		}
+
+		if (code >= _generatedIds.length)
+		{
+			int length = _generatedIds.length;
+			_generatedIds = Arrays.copyOf(_generatedIds, Math.max(2 * length, code + 1));
+			Arrays.fill(_generatedIds, length, _generatedIds.length, -1);
+		}
+		if (_generatedIds[code] == -1) _generatedIds[code] = id;
+	}
+
+	/**
+	 * @return a (live, read-only) view of the entire database of points, in order of storage
+	 */
+	@Override
+	public Set<Point> getAllPoints()
+	{
+		return new AbstractSet<Point>()
+		{
+			@Override
+			public int size() { return _storage.pointCount(); }
+
+			@Override
+			public boolean contains(Object o) { return o instanceof Point && PackedPointNamingFactory.this.contains((Point)o); }
+
+			@Override
+			public Iterator<Point> iterator()
+			{
+				return new Iterator<Point>()
+				{
+					private int _next = 0;
+
+					@Override
+					public boolean hasNext() { return _next < _storage.pointCount(); }
+
+					@Override
+					public Point next()
+					{
+						if (!hasNext()) throw new NoSuchElementException();
+
+						return point(_next++);
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public void clear()
+	{
+		_storage.clear();
+		_ids.clear();
+		Arrays.fill(_generatedIds, -1);
+		_namedIds.clear();
+	}
+
+	@Override
+	public int size() { return _storage.pointCount(); }
+}
@@ -65,11 +65,14 @@ public class Point implements Comparable<Point>
 		return _name == ANONYMOUS;
 	}
 
+	/**
+	 * Equal points hash to the same value or to that of a neighbouring
+	 * EPSILON-sized cell (see MathUtilities.cellKey).
+	 */
 	@Override
 	public int hashCode()
 	{
-		return Double.valueOf(MathUtilities.removeLessEpsilon(_x)).hashCode() +
-			   Double.valueOf(MathUtilities.removeLessEpsilon(_y)).hashCode();
+		return MathUtilities.cellHash(_x, _y);
 	}
 
 	/**
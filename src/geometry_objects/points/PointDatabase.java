@@ -2,9 +2,9 @@ package geometry_objects.points;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
+
+import utilities.storage.FigureStorage;
 
 /**
  * This class represents a bi-directional database of points.
@@ -21,7 +21,7 @@ public class PointDatabase
 {
 	// The factory is the central means of representing all
     // points in a figure
-    protected PointNamingFactory _factory;
+    protected PointFactory _factory;
 
     public Set<Point> getPoints() { return _factory.getAllPoints(); }
     
@@ -36,6 +36,21 @@ public class PointDatabase
 		else _factory = new PointNamingFactory(points);
 	}
 
+	/**
+	 * @param storage -- (empty) packed storage to keep the points in, e.g., off-heap
+	 *                   (see PackedPointNamingFactory)
+	 */
+	public PointDatabase(FigureStorage storage)
+	{
+		_factory = new PackedPointNamingFactory(storage);
+	}
+
+	public PointDatabase(List<Point> points, FigureStorage storage)
+	{
+		if (points == null) _factory = new PackedPointNamingFactory(storage);
+		else _factory = new PackedPointNamingFactory(points, storage);
+	}
+
 	public int size() { return _factory.size(); }
 	
 	/**
@@ -61,13 +76,13 @@ public class PointDatabase
 	 */
 	public String getName(double x, double y)
 	{
-		if (this.getPoint(x, y) == null) return null;
-        return this.getPoint(x, y).getName();
+		Point pt = this.getPoint(x, y);
+		return pt == null ? null : pt.getName();
 	}
 	public String getName(Point pt)
 	{
-		if (this.getPoint(pt) == null) return null;
-        return this.getPoint(pt).getName();
+		Point stored = this.getPoint(pt);
+		return stored == null ? null : stored.getName();
 	}
 
 	/**
@@ -78,10 +93,7 @@ public class PointDatabase
 	 */
 	public Point getPoint(String name)
 	{
-		Stream<Point> pointStream = _factory.getAllPoints().stream();
-        Optional<Point> point = pointStream.filter((Point pt) -> pt.getName().equals(name)).findFirst();
-
-		return point.orElse(null);
+		return _factory.get(name);
 	}
 
 	/**
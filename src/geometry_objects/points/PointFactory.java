@@ -0,0 +1,53 @@
+package geometry_objects.points;
+
+import java.util.Set;
+
+/*
+ * The points of a figure, each named once (see PointNamingFactory, whose points
+ * are Point objects, and PackedPointNamingFactory, whose points live in packed
+ * storage); a PointDatabase is backed by either.
+ */
+public interface PointFactory
+{
+	/**
+	 * @return the stored point equal to pt; otherwise pt, now stored
+	 */
+	Point put(Point pt);
+
+	/**
+	 * @return the stored point at (x, y); otherwise a new point with a generated name
+	 */
+	Point put(double x, double y);
+
+	/**
+	 * @return the stored (named) point at (x, y); otherwise a new point with the name
+	 *         (a name may overwrite an unnamed point)
+	 */
+	Point put(String name, double x, double y);
+
+	/**
+	 * @return the stored point at exactly (x, y); null if none
+	 */
+	Point get(double x, double y);
+
+	/**
+	 * @return the stored point equal to pt; null if none
+	 */
+	Point get(Point pt);
+
+	/**
+	 * @return the (first) stored point with the name; null if none
+	 */
+	Point get(String name);
+
+	boolean contains(double x, double y);
+	boolean contains(Point p);
+
+	/**
+	 * @return the entire database of points
+	 */
+	Set<Point> getAllPoints();
+
+	void clear();
+	int size();
+}
@@ -0,0 +1,88 @@
+package geometry_objects.points;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point names as int codes, for packed storage (see utilities.storage.FigureStorage):
+ *
+ *     Point.ANONYMOUS -- UNNAMED
+ *     generated names -- their (non-negative) position in the sequence of names
+ *                        *_A, *_B, ..., *_Z, *_AA, *_BB, ..., *_ZZ, *_AAA, ...
+ *     other names     -- -2 - their position in a table of such names
+ *
+ * Generated names take no space; a figure has few other names.
+ */
+public class PointNames
+{
+	public static final int UNNAMED = -1;
+
+	private static final String PREFIX = "*_"; // Distinguishes generated names
+
+	private static final char START_LETTER = 'A';
+	private static final int LETTERS = 26;
+
+	/**
+	 * @param index -- a position in the sequence of generated names
+	 * @return the generated name at that position
+	 */
+	public static String generated(int index)
+	{
+		return PREFIX + String.valueOf((char)(START_LETTER + index % LETTERS)).repeat(index / LETTERS + 1);
+	}
+
+	/**
+	 * @param name -- a name
+	 * @return the position of @name in the sequence of generated names; -1 if it is not a generated name
+	 */
+	public static int generatedIndex(String name)
+	{
+		if (name == null || !name.startsWith(PREFIX) || name.length() == PREFIX.length()) return -1;
+
+		char letter = name.charAt(PREFIX.length());
+		if (letter < START_LETTER || letter >= START_LETTER + LETTERS) return -1;
+
+		int repeats = name.length() - PREFIX.length();
+		if (repeats > Integer.MAX_VALUE / LETTERS) return -1;
+
+		for (int i = PREFIX.length() + 1; i < name.length(); i++)
+		{
+			if (name.charAt(i) != letter) return -1;
+		}
+		return (repeats - 1) * LETTERS + (letter - START_LETTER);
+	}
+
+	private final List<String> _names = new ArrayList<String>();
+	private final Map<String, Integer> _codes = new HashMap<String, Integer>();
+
+	/**
+	 * @param name -- a point name
+	 * @return the code of the name
+	 */
+	public int encode(String name)
+	{
+		if (name == null || name == Point.ANONYMOUS) return UNNAMED;
+
+		int index = generatedIndex(name);
+		if (index != -1) return index;
+
+		return _codes.computeIfAbsent(name, k ->
+		{
+			_names.add(k);
+			return -1 - _names.size();
+		});
+	}
+
+	/**
+	 * @param code -- a code (from encode)
+	 * @return the name with that code
+	 */
+	public String decode(int code)
+	{
+		if (code == UNNAMED) return Point.ANONYMOUS;
+
+		return code >= 0 ? generated(code) : _names.get(-2 - code);
+	}
+}
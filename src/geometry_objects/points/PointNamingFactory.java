@@ -1,26 +1,24 @@
 package geometry_objects.points;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import utilities.math.analytic_geometry.CoordinateIndex;
+
 /*
  * Given a pair of coordinates; generate a unique name for it;
  * return that point object.
  *
  * Names go from A..Z..AA..ZZ..AAA...ZZZ
  */
-public class PointNamingFactory
+public class PointNamingFactory implements PointFactory
 {
-	private static final String _PREFIX = "*_"; // Distinguishes generated names
-
-	private static final char START_LETTER = 'A';
-	private static final char END_LETTER = 'Z';
-
-	private String _currentName = "A";
-	private int _numLetters = 1;
+	// The position of the next name in the sequence of generated names (see PointNames)
+	private int _generated = 0;
 
 	//
 	// A hashed container for the database of points;
@@ -31,21 +29,37 @@ public class PointNamingFactory
 	//
 	protected Map<Point, Point> _database;
 
+	//
+	// An epsilon-aware index of the database: finds the stored point equal
+	// (Point.equals) to given coordinates in O(1) without scanning.
+	// All changes to _database go through store / unstore to keep it current.
+	//
+	protected CoordinateIndex<Point> _index;
+
+	//
+	// Named points by name (the first stored point of a given name);
+	// unnamed points are not indexed by name.
+	//
+	protected Map<String, Point> _names;
+
 	public PointNamingFactory()
 	{
 		_database = new LinkedHashMap<>();
+		_index = new CoordinateIndex<Point>(Point::getX, Point::getY);
+		_names = new HashMap<>();
 	}
 
 	/**
 	 * 
 	 * @param points -- a list of points, named or not named
+	 *                  (of equal points, the first is kept)
 	 */
 	public PointNamingFactory(List<Point> points)
 	{
-		_database = new LinkedHashMap<>();
+		this();
 		
 		for(Point point : points)
-			_database.put(point, point);
+			put(point);
 	}
 
 	/**
@@ -55,13 +69,10 @@ public class PointNamingFactory
 	 */
 	public Point put(Point pt)
 	{
-		Set<Point> points = getAllPoints();
-		
-		for(Point p : points)
-			if(pt.equals(p))
-				return p;
+		Point existing = lookup(pt.getX(), pt.getY());
+		if (existing != null) return existing;
 		
-		_database.put(pt, pt);
+		store(pt);
 		return pt;
 	}
 
@@ -72,15 +83,13 @@ public class PointNamingFactory
 	 */
 	public Point put(double x, double y)
 	{
+		// A name is generated (and consumed) whether or not the point exists
 		Point newPoint = new Point(getCurrentName(), x, y);
-		Set<Point> points = getAllPoints();
-		
-		for(Point p : points)
-			//if(newPoint.compareTo(p) == 0)
-			if(newPoint.equals(p))
-				return p;
+
+		Point existing = lookup(x, y);
+		if (existing != null) return existing;
 		
-		_database.put(newPoint, newPoint);
+		store(newPoint);
 		return newPoint;
 	}
 
@@ -112,18 +121,32 @@ public class PointNamingFactory
 	 */
 	public Point get(double x, double y)
 	{		
-		Point newPoint = new Point(x, y);
-		Set<Point> points = getAllPoints();
+		// Strict: the coordinates must match exactly
+		Point existing = lookup(x, y);
+		if (existing == null || existing.compareTo(new Point(x, y)) != 0) return null;
 		
-		for(Point p : points) 
-			if(p.compareTo(newPoint) == 0)
-				return p;
-		
-		return null;
+		return existing;
 	}	
 	public Point get(Point pt)
 	{
-		return _database.get(pt);
+		return lookup(pt.getX(), pt.getY());
+	}
+
+	/**
+	 * @param name -- the name of a point
+	 * @return the (first) stored point with the given name; null if there is none
+	 */
+	public Point get(String name)
+	{
+		Point named = _names.get(name);
+		if (named != null || !Point.ANONYMOUS.equals(name)) return named;
+
+		// Unnamed points are not indexed by name
+		for (Point pt : _database.keySet())
+		{
+			if (pt.getName() == Point.ANONYMOUS) return pt;
+		}
+		return null;
 	}
 
 	/**
@@ -141,16 +164,7 @@ public class PointNamingFactory
 	 */
 	private Point lookupExisting(String name, double x, double y)
 	{
-		Point newPoint = new Point(name, x, y);
-		Set<Point> points = getAllPoints();
-		
-		for(Point p : points) {
-			if(newPoint.equals(p) && p.getName() != Point.ANONYMOUS)
-				return p;
-			
-		}
-		
-		return null;
+		return _index.get(x, y, p -> p.getName() != Point.ANONYMOUS);
 	}  
 
 	/**
@@ -168,7 +182,8 @@ public class PointNamingFactory
 	 */
 	private Point createNewPoint(String name, double x, double y)
 	{
-		if(!(lookupExisting(name, x, y) == null)) return lookupExisting(name, x, y);
+		Point existing = lookupExisting(name, x, y);
+		if(existing != null) return existing;
 
 		Point newPoint = null;
 		if(name == Point.ANONYMOUS)
@@ -176,29 +191,45 @@ public class PointNamingFactory
 		else
 			newPoint = new Point(name, x, y);
 		
-		Set<Point> points = getAllPoints();
-		
-		for(Point p : points) 
-		{			
-			if(newPoint.equals(p) && p.getName() == Point.ANONYMOUS) 
-			{
-				_database.remove(p, p);
-				_database.put(newPoint, newPoint);
-				return newPoint;
-			}
-				
-		}
-		_database.put(newPoint, newPoint);
+		// A (now named) point overwrites the equal unnamed point
+		Point unnamed = _index.get(x, y, p -> p.getName() == Point.ANONYMOUS);
+		if (unnamed != null) unstore(unnamed);
+
+		store(newPoint);
 		return newPoint;
 	}
 
+	/**
+	 * @param x -- single coordinate
+	 * @param y -- single coordinate
+	 * @return the stored point equal (within epsilon) to (x, y); null if there is none
+	 */
+	private Point lookup(double x, double y) { return _index.get(x, y); }
+
+	/**
+	 * Add / remove a point to / from the database and its indices.
+	 * @param pt -- a point
+	 */
+	private void store(Point pt)
+	{
+		_database.put(pt, pt);
+		_index.put(pt);
+		if (pt.getName() != Point.ANONYMOUS) _names.putIfAbsent(pt.getName(), pt);
+	}
+	private void unstore(Point pt)
+	{
+		_database.remove(pt);
+		_index.remove(pt);
+		_names.remove(pt.getName(), pt);
+	}
+
 	/**
 	 * @param x -- single coordinate
 	 * @param y -- single coordinate
 	 * @return simple containment; no updating
 	 */
-	public boolean contains(double x, double y) { return _database.containsKey(new Point(x, y)); }
-	public boolean contains(Point p) { return _database.containsKey(p);}
+	public boolean contains(double x, double y) { return lookup(x, y) != null; }
+	public boolean contains(Point p) { return lookup(p.getX(), p.getY()) != null; }
 
 	public Point rename(Point p) 
 	{ 
@@ -207,33 +238,12 @@ public class PointNamingFactory
 	}
 	
 	/**
-	 * @return acquires and returns the next name in sequence; also
-	 * generates the next name in a 'lazy list' manner 
+	 * @return acquires and returns the next name in sequence:
+	 * 'A' -> 'B' -> 'C' -> 'Z' --> 'AA' -> 'BB' (see PointNames.generated)
 	 */
-	private String getCurrentName()
+	protected String getCurrentName()
 	{
-        String string = _PREFIX + _currentName;
-        updateName();
-        return string;
-	}
-
-	/**
-	 * Advances the current generated name to the next letter in the alphabet:
-	 * 'A' -> 'B' -> 'C' -> 'Z' --> 'AA' -> 'BB'
-	 */
-	private  void updateName()
-	{
-		if(_currentName.charAt(0) == END_LETTER) {
-			_currentName = "" + START_LETTER;
-			_numLetters++;
-		}	
-		else {
-			char next = (char) (_currentName.charAt(0)+1);
-			_currentName = "" + next;
-		}
-		
-        for(int i = 1; i < _numLetters; i++)
-        	_currentName += _currentName.charAt(0);
+		return PointNames.generated(_generated++);
 	}
 
 	/**
@@ -244,7 +254,12 @@ public class PointNamingFactory
         return _database.keySet();
 	}
 
-	public void clear() { _database.clear(); }
+	public void clear()
+	{
+		_database.clear();
+		_index.clear();
+		_names.clear();
+	}
 	public int size() { return _database.size(); }
 
 	@Override
@@ -0,0 +1,256 @@
+package input;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import geometry_objects.points.PointDatabase;
+import input.components.FigureNode;
+import input.components.point.PointNode;
+import input.components.segment.SegmentNode;
+import input.exception.ParseException;
+import utilities.storage.FigureStorage;
+
+/**
+ * A compact binary figure format, read through a memory mapping of the file
+ * rather than parsed. All values are little-endian:
+ *
+ *     header   -- the bytes 'F' 'I' 'G' 'B', then ints: version, point count n,
+ *                 segment count m, string table size in bytes b
+ *     strings  -- int offsets[n + 2] into b bytes of UTF-8 text, padded to a
+ *                 multiple of 8 bytes; string 0 is the description of the
+ *                 figure, string i + 1 the name of point i (empty if unnamed)
+ *     points   -- doubles x0, y0, x1, y1, ... (2n)
+ *     segments -- ints: the point indices of each segment's endpoints (2m)
+ *
+ * A file is read into the same representation as InputFacade.toGeometryRepresentation
+ * builds from a JSON file.
+ */
+public class BinaryFigureFile
+{
+	public static final int VERSION = 1;
+
+	private static final byte[] MAGIC = { 'F', 'I', 'G', 'B' };
+	private static final int HEADER_BYTES = MAGIC.length + 4 * Integer.BYTES;
+
+	/**
+	 * @param figure -- a figure
+	 * @param path -- the file to (over)write
+	 */
+	public static void write(FigureNode figure, Path path) throws IOException
+	{
+		List<String> names = new ArrayList<String>();
+		List<double[]> coordinates = new ArrayList<double[]>();
+		Map<PointNode, Integer> index = new HashMap<PointNode, Integer>();
+
+		for (PointNode point : figure.getPointsDatabase().getPoints())
+		{
+			index.put(point, names.size());
+			names.add(point.getName());
+			coordinates.add(new double[] { point.getX(), point.getY() });
+		}
+
+		List<SegmentNode> segments = figure.getSegments().asUniqueSegmentList();
+		int[] pairs = new int[2 * segments.size()];
+		for (int s = 0; s < segments.size(); s++)
+		{
+			pairs[2 * s] = indexOf(index, segments.get(s).getPoint1());
+			pairs[2 * s + 1] = indexOf(index, segments.get(s).getPoint2());
+		}
+
+		write(figure.getDescription(), names, coordinates, pairs, path);
+	}
+
+	/**
+	 * @param points -- the points of a figure
+	 * @param segments -- the segments of a figure (with endpoints in points)
+	 * @param path -- the file to (over)write
+	 */
+	public static void write(PointDatabase points, Set<Segment> segments, Path path) throws IOException
+	{
+		List<String> names = new ArrayList<String>();
+		List<double[]> coordinates = new ArrayList<double[]>();
+		Map<Point, Integer> index = new HashMap<Point, Integer>();
+
+		for (Point point : points.getPoints())
+		{
+			index.put(point, names.size());
+			names.add(point.getName());
+			coordinates.add(new double[] { point.getX(), point.getY() });
+		}
+
+		int[] pairs = new int[2 * segments.size()];
+		int s = 0;
+		for (Segment segment : segments)
+		{
+			pairs[s++] = indexOf(index, segment.getPoint1());
+			pairs[s++] = indexOf(index, segment.getPoint2());
+		}
+
+		write("", names, coordinates, pairs, path);
+	}
+
+	private static <T> int indexOf(Map<T, Integer> index, T point)
+	{
+		Integer i = index.get(point);
+		if (i == null) throw new IllegalArgumentException("Segment endpoint " + point + " is not a point of the figure");
+
+		return i;
+	}
+
+	private static void write(String description, List<String> names, List<double[]> coordinates, int[] pairs, Path path) throws IOException
+	{
+		// the string table: the description, then the point names
+		byte[][] strings = new byte[names.size() + 1][];
+		strings[0] = description.getBytes(StandardCharsets.UTF_8);
+		int stringBytes = strings[0].length;
+		for (int i = 0; i < names.size(); i++)
+		{
+			String name = names.get(i);
+			strings[i + 1] = name == null || name.equals(Point.ANONYMOUS) ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+			stringBytes += strings[i + 1].length;
+		}
+
+		long size = HEADER_BYTES + (long)Integer.BYTES * (strings.length + 1) + padded(stringBytes) +
+		            (long)Double.BYTES * 2 * coordinates.size() + (long)Integer.BYTES * pairs.length;
+		if (size > Integer.MAX_VALUE) throw new IOException("Figure too large for one file: " + size + " bytes");
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+		                                            StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			ByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+
+			out.put(MAGIC);
+			out.putInt(VERSION);
+			out.putInt(names.size());
+			out.putInt(pairs.length / 2);
+			out.putInt(stringBytes);
+
+			int offset = 0;
+			out.putInt(offset);
+			for (byte[] string : strings) out.putInt(offset += string.length);
+			for (byte[] string : strings) out.put(string);
+			out.position(out.position() + (int)padded(stringBytes) - stringBytes);
+
+			for (double[] xy : coordinates) out.putDouble(xy[0]).putDouble(xy[1]);
+			for (int pair : pairs) out.putInt(pair);
+		}
+	}
+
+	private static long padded(long bytes)
+	{
+		return (bytes + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+	}
+
+	/**
+	 * @param path -- a binary figure file
+	 * @return a pair <set of points as a database, set of segments>
+	 */
+	public static Map.Entry<PointDatabase, Set<Segment>> read(Path path) throws IOException
+	{
+		return read(path, null);
+	}
+
+	/**
+	 * @param path -- a binary figure file
+	 * @param storage -- (empty) packed storage to keep the points in (see PointDatabase); null for none
+	 * @return a pair <set of points as a database, set of segments>
+	 */
+	public static Map.Entry<PointDatabase, Set<Segment>> read(Path path, FigureStorage storage) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			if (channel.size() > Integer.MAX_VALUE) throw new ParseException("Not a binary figure file: " + path);
+
+			ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+
+			try { return read(in, storage); }
+			catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e)
+			{
+				throw new ParseException("Malformed binary figure file: " + path, e);
+			}
+		}
+	}
+
+	private static Map.Entry<PointDatabase, Set<Segment>> read(ByteBuffer in, FigureStorage storage)
+	{
+		byte[] magic = new byte[MAGIC.length];
+		in.get(magic);
+		for (int i = 0; i < MAGIC.length; i++)
+		{
+			if (magic[i] != MAGIC[i]) throw new ParseException("Not a binary figure file");
+		}
+
+		int version = in.getInt();
+		if (version != VERSION) throw new ParseException("Unsupported binary figure version " + version);
+
+		int pointCount = in.getInt();
+		int segmentCount = in.getInt();
+		int stringBytes = in.getInt();
+		if (pointCount < 0 || segmentCount < 0 || stringBytes < 0) throw new ParseException("Malformed binary figure header");
+
+		// the sections are views of the mapping; all are checked before anything is allocated
+		IntBuffer offsets = section(in, (long)Integer.BYTES * (pointCount + 2L)).asIntBuffer();
+		ByteBuffer strings = section(in, padded(stringBytes));
+		DoubleBuffer coordinates = section(in, (long)Double.BYTES * 2 * pointCount).asDoubleBuffer();
+		IntBuffer pairs = section(in, (long)Integer.BYTES * 2 * segmentCount).asIntBuffer();
+
+		byte[] scratch = new byte[64];
+		List<Point> points = new ArrayList<Point>(pointCount);
+		for (int i = 0; i < pointCount; i++)
+		{
+			int start = offsets.get(i + 1);
+			int length = offsets.get(i + 2) - start;
+			if (start < 0 || length < 0 || length > stringBytes - start) throw new ParseException("Malformed binary figure string table");
+			if (length > scratch.length) scratch = new byte[Math.max(length, 2 * scratch.length)];
+
+			double x = coordinates.get(2 * i);
+			double y = coordinates.get(2 * i + 1);
+
+			if (length == 0) points.add(new Point(x, y));
+			else
+			{
+				strings.get(start, scratch, 0, length);
+				points.add(new Point(new String(scratch, 0, length, StandardCharsets.UTF_8), x, y));
+			}
+		}
+
+		Set<Segment> segments = new HashSet<Segment>(2 * segmentCount);
+		for (int s = 0; s < segmentCount; s++)
+		{
+			segments.add(new Segment(points.get(pairs.get(2 * s)), points.get(pairs.get(2 * s + 1))));
+		}
+
+		PointDatabase database = storage == null ? new PointDatabase(points) : new PointDatabase(points, storage);
+
+		return new AbstractMap.SimpleEntry<PointDatabase, Set<Segment>>(database, segments);
+	}
+
+	/*
+	 * @return the next @bytes bytes of @in (little-endian)
+	 */
+	private static ByteBuffer section(ByteBuffer in, long bytes)
+	{
+		if (bytes < 0 || bytes > in.remaining()) throw new BufferUnderflowException();
+
+		ByteBuffer section = in.slice(in.position(), (int)bytes).order(ByteOrder.LITTLE_ENDIAN);
+		in.position(in.position() + (int)bytes);
+		return section;
+	}
+}
@@ -9,21 +9,30 @@ import input.components.point.PointNode;
 import input.components.point.PointNodeDatabase;
 import input.components.segment.SegmentNode;
 import input.components.segment.SegmentNodeDatabase;
+import input.exception.ParseException;
 import input.parser.JSONParser;
+import utilities.io.MappedFigureFile;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Stream;
 
 public class InputFacade {
     /**
-     * Acquire a figure from the given JSON file.
+     * Acquire a figure from the given JSON file; the file is mapped (see MappedFigureFile)
+     * and parsed as it is read.
      *
      * @param filename -- the name of a file
      * @return a FigureNode object corresponding to the input file.
      */
     public static FigureNode extractFigure(String filename) {
-        String figureStr = utilities.io.FileUtilities.readFileFilterComments(filename);
-        return (FigureNode) new JSONParser(new GeometryBuilder()).parse(figureStr);
+        try {
+            return (FigureNode) new JSONParser(new GeometryBuilder()).parse(MappedFigureFile.open(Path.of(filename)).reader());
+        }
+        catch (IOException e) {
+            throw new ParseException(e);
+        }
     }
 
     /**
@@ -42,6 +51,22 @@ public class InputFacade {
         // return new AbstractMap.SimpleEntry<>(new PointDatabase(node.getPointsDatabase().getPoints().stream().map((pointNode) -> new Point(pointNode.getName(), pointNode.getX(), pointNode.getY())).toList()), new HashSet<>(node.getSegments().asUniqueSegmentList().stream().map((segmentNode) -> new Segment(new Point(segmentNode.getPoint1().getName(), segmentNode.getPoint1().getX(), segmentNode.getPoint1().getY()), new Point(segmentNode.getPoint2().getName(), segmentNode.getPoint2().getX(), segmentNode.getPoint2().getY()))).toList()));
     }
 
+    /**
+     * Read in a figure from a binary figure file (see BinaryFigureFile); the result
+     * is the same as toGeometryRepresentation of the JSON file it was written from.
+     *
+     * @param filename
+     * @return a pair <set of points as a database, set of segments>
+     */
+    public static Map.Entry<PointDatabase, Set<Segment>> binaryToGeometryRepresentation(String filename) {
+        try {
+            return BinaryFigureFile.read(Path.of(filename));
+        }
+        catch (IOException e) {
+            throw new ParseException(e);
+        }
+    }
+
     private static Map.Entry<PointDatabase, Set<Segment>> figureToGeometry(FigureNode figure) {
         PointNodeDatabase pointNodeDatabase = figure.getPointsDatabase();
         SegmentNodeDatabase segmentNodeDatabase = figure.getSegments();
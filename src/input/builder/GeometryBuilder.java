@@ -16,7 +16,8 @@ public class GeometryBuilder extends DefaultBuilder
 	
 	/**
 	 * Creates a new figure node with the appropriate 
-	 * description, set of points and set of segments
+	 * description, set of points and set of segments; the segments
+	 * are complete, so their database is frozen
 	 * @param description -- the description of the figure as a string
 	 * @param points -- a database of the points of a figure
 	 * @param segments -- a database of the segments of a figure
@@ -27,6 +28,8 @@ public class GeometryBuilder extends DefaultBuilder
     		                          PointNodeDatabase points,
     		                          SegmentNodeDatabase segments)
     {
+		if (segments != null) segments.freeze();
+		
 		return new FigureNode(description , points, segments);
  
     }
@@ -70,10 +70,14 @@ public class PointNode implements ComponentNode
 		return visitor.visitPointNode(this, o);
 	 }
 
+	/**
+	 * Consistent with Point: equal nodes hash to the same value or to that
+	 * of a neighbouring EPSILON-sized cell (see MathUtilities.cellKey).
+	 */
 	@Override
 	public int hashCode()
 	{
-		return Double.valueOf(_x).hashCode() + Double.valueOf(_y).hashCode();
+		return MathUtilities.cellHash(_x, _y);
 	}
 	
 
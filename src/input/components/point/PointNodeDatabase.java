@@ -8,17 +8,26 @@
  */
 package input.components.point;
 
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import input.components.ComponentNode;
 import input.visitor.ComponentNodeVisitor;
 import utilities.io.StringUtilities;
+import utilities.math.analytic_geometry.CoordinateIndex;
 
 public class PointNodeDatabase implements ComponentNode
 {
 	protected Set<PointNode> _points;
+
+	// The (first) point put with each name
+	protected Map<String, PointNode> _names;
+
+	// The points by coordinates (within epsilon; the first put wins)
+	protected CoordinateIndex<PointNode> _coordinates;
 	
 	interface ComponentNode{
 		void unparse(StringBuilder sb , int level);
@@ -30,6 +39,8 @@ public class PointNodeDatabase implements ComponentNode
 	 */
 	public PointNodeDatabase() {
 		_points = new LinkedHashSet<PointNode>();
+		_names = new HashMap<String, PointNode>();
+		_coordinates = new CoordinateIndex<PointNode>(PointNode::getX, PointNode::getY);
 	}
 	
 	@Override
@@ -43,7 +54,8 @@ public class PointNodeDatabase implements ComponentNode
 	 * @param l- a list of PointNodes
 	 */
 	public PointNodeDatabase(List<PointNode> l) {
-		_points = new LinkedHashSet<PointNode>(l);
+		this();
+		for (PointNode p : l) put(p);
 	}
 	
 	public int getSize() {return _points.size();}
@@ -55,9 +67,12 @@ public class PointNodeDatabase implements ComponentNode
 	 * @param p- the pointNode to add
 	 */
 	public void put(PointNode p) {
-		//if item already in set
-		if (!(_points.add(p))) return;
+		//if an equal node is already in the index (equal nodes may hash to neighbouring cells)
+		if (_coordinates.get(p.getX(), p.getY()) != null) return;
+		
 		_points.add(p);
+		_coordinates.put(p);
+		if (p.getName() != null && !p.getName().equals(PointNode.ANONYMOUS)) _names.putIfAbsent(p.getName(), p);
 	}
 	
 	/**
@@ -66,7 +81,7 @@ public class PointNodeDatabase implements ComponentNode
 	 * @return true if in database otherwise false
 	 */
 	public boolean contains(PointNode p) {
-		return _points.contains(p);
+		return _coordinates.get(p.getX(), p.getY()) != null;
 	}
 	
 	/**
@@ -77,10 +92,8 @@ public class PointNodeDatabase implements ComponentNode
 	 * @return true if in database otherwise false
 	 */
 	public boolean contains(double x, double y) {
-		//create a point object with coordinates then compare
-		//PointNode p = new PointNode(x, y)
-		//compare
-		return _points.contains(new PointNode(x, y));
+		//look up the coordinates in the index
+		return _coordinates.get(x, y) != null;
 	}
 	
 	/**
@@ -100,28 +113,31 @@ public class PointNodeDatabase implements ComponentNode
 	 * @return the name as a string
 	 */
 	public String getName(double x, double y) {
-		//create a new node with inputs
-		PointNode newP = new PointNode(x, y);
-		//if set already contains node
-		if (_points.contains(newP)) {
-			//convert set to array and find point in array, then return point's name
-			for(Object point:_points.toArray()) {
-				if (point.equals(newP)) {
-					return ((PointNode) point).getName();
-				}
-			}
-		} 
+		//if the index has a node at the coordinates, return its name
+		PointNode point = _coordinates.get(x, y);
+		if (point != null) return point.getName();
+		
 		//return default name
-		return newP.getName();
+		return PointNode.ANONYMOUS;
 	}
 	
 	/**
-	 * Gets a point Node
+	 * Gets a pointNode by name
+	 * @param name- the name of a pointNode put in the database
+	 * @return the (first) pointNode with that name; null if there is none
+	 */
+	public PointNode getPoint(String name) {
+		return _names.get(name);
+	}
+	
+	/**
+	 * Gets the stored point Node equal to a point Node
 	 * @param p- the Node to get
-	 * @return the retrieved node
+	 * @return the stored node; p if there is none
 	 */
 	public PointNode getPoint(PointNode p) {
-		return p;
+		PointNode point = _coordinates.get(p.getX(), p.getY());
+		return point != null ? point : p;
 	}
 	/**
 	 * Gets a point Node with specified coordinates
@@ -130,18 +146,11 @@ public class PointNodeDatabase implements ComponentNode
 	 * @return
 	 */
 	public PointNode getPoint(double x, double y) {
-		//create a new node with inputs
-		PointNode newP = new PointNode(x, y);
-		//if set already contains node
-		if (_points.contains(newP)) {
-			//convert set to array and find point in array, then return point
-			for(Object point:_points.toArray()) {
-				if (point.equals(newP)) {
-					return (PointNode) point;
-				}
-			}
-		} 
-		return newP;
+		//if the index has a node at the coordinates, return it
+		PointNode point = _coordinates.get(x, y);
+		if (point != null) return point;
+		
+		return new PointNode(x, y);
 	}
 		
 	
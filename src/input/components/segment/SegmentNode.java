@@ -55,6 +55,15 @@ public class SegmentNode implements ComponentNode
 		
 	}
 	
+	/**
+	 * Consistent with equals: the (ordered) endpoints are combined
+	 */
+	@Override
+	public int hashCode()
+	{
+		return 31 * _point1.hashCode() + _point2.hashCode();
+	}
+	
 	@Override
 	public String toString() {
 		return _point1.getName() + _point2.getName();
@@ -23,8 +23,21 @@ import input.components.point.*;
 import input.visitor.ComponentNodeVisitor;
 
 public class SegmentNodeDatabase implements ComponentNode {
+	//the adjacency lists while the database is built; once frozen, a view of the frozen form
 	protected Map<PointNode, Set<PointNode>> _adjLists;
 	
+	//frozen (compressed sparse row) form: the neighbors of vertex v are the vertices
+	//_neighbors[_offsets[v]] .. _neighbors[_offsets[v + 1] - 1] in increasing order;
+	//the first _keys vertices are the keys of the adjacency lists
+	private PointNode[] _vertices;
+	private int[] _offsets;
+	private int[] _neighbors;
+	private int _keys;
+	private int _undirectedEdges;
+	
+	//open addressing table of vertices by hash (vertex + 1; 0 is empty)
+	private int[] _slots;
+	
 	public SegmentNodeDatabase() {
 		_adjLists = new HashMap<PointNode, Set<PointNode>>();
 	}
@@ -39,13 +52,104 @@ public class SegmentNodeDatabase implements ComponentNode {
 		return visitor.visitSegmentDatabaseNode(this, o);
 	 }
 	
-	public Map<PointNode, Set<PointNode>> get_adjLists() {return _adjLists;}
+	/**
+	 * @return the adjacency lists; once frozen, a read-only view of the frozen form (created on request)
+	 */
+	public Map<PointNode, Set<PointNode>> get_adjLists() {
+		if (isFrozen() && _adjLists == null) _adjLists = new AdjacencyView();
+		return _adjLists;
+	}
+	
+	public boolean isFrozen() { return _vertices != null; }
 	
 	/**
-	 * Calculates the number of undirectedEdges in the database
+	 * Replaces the adjacency lists with an immutable compressed sparse row form:
+	 * an array of vertices, an int offset per vertex into one int array of
+	 * neighbors. Call once all segments are added (as by GeometryBuilder when
+	 * the figure is built); further additions throw UnsupportedOperationException.
+	 */
+	public void freeze() {
+		if (isFrozen()) return;
+		
+		//number the keys, then neighbors that are not keys
+		Map<PointNode, Integer> ids = new HashMap<PointNode, Integer>();
+		List<PointNode> vertices = new ArrayList<PointNode>(_adjLists.keySet());
+		for (PointNode key : vertices) ids.put(key, ids.size());
+		_keys = vertices.size();
+		for (Set<PointNode> list : _adjLists.values()) {
+			for (PointNode value : list) {
+				if (ids.putIfAbsent(value, ids.size()) == null) vertices.add(value);
+			}
+		}
+		
+		int[] offsets = new int[vertices.size() + 1];
+		int edges = 0;
+		for (int v = 0; v < _keys; v++) edges += _adjLists.get(vertices.get(v)).size();
+		int[] neighbors = new int[edges];
+		
+		for (int v = 0; v < vertices.size(); v++) {
+			int next = offsets[v];
+			if (v < _keys) {
+				for (PointNode value : _adjLists.get(vertices.get(v))) neighbors[next++] = ids.get(value);
+				Arrays.sort(neighbors, offsets[v], next);
+			}
+			offsets[v + 1] = next;
+		}
+		
+		_vertices = vertices.toArray(new PointNode[0]);
+		_offsets = offsets;
+		_neighbors = neighbors;
+		_adjLists = null;
+		
+		_slots = new int[Integer.highestOneBit(Math.max(1, 2 * _vertices.length)) << 1];
+		for (int v = 0; v < _vertices.length; v++) {
+			int slot = slot(_vertices[v]);
+			while (_slots[slot] != 0) slot = (slot + 1) & (_slots.length - 1);
+			_slots[slot] = v + 1;
+		}
+		
+		//an undirected edge is listed in both directions
+		int directed = 0;
+		for (int v = 0; v < _keys; v++) {
+			for (int i = _offsets[v]; i < _offsets[v + 1]; i++) {
+				if (isAdjacent(_neighbors[i], v)) directed++;
+			}
+		}
+		_undirectedEdges = directed / 2;
+	}
+	
+	private int slot(Object point) {
+		int h = point.hashCode();
+		return (h ^ (h >>> 16)) & (_slots.length - 1);
+	}
+	
+	/**
+	 * @param point
+	 * @return the number of the (frozen) vertex equal to point; -1 if there is none
+	 */
+	private int indexOf(Object point) {
+		if (!(point instanceof PointNode)) return -1;
+		
+		for (int slot = slot(point); _slots[slot] != 0; slot = (slot + 1) & (_slots.length - 1)) {
+			if (_vertices[_slots[slot] - 1].equals(point)) return _slots[slot] - 1;
+		}
+		return -1;
+	}
+	
+	/**
+	 * @return true if (frozen) vertex from lists vertex to as a neighbor
+	 */
+	private boolean isAdjacent(int from, int to) {
+		return from < _keys && Arrays.binarySearch(_neighbors, _offsets[from], _offsets[from + 1], to) >= 0;
+	}
+	
+	/**
+	 * Calculates the number of undirectedEdges in the database (constant time once frozen)
 	 * @return the number of undirected edges
 	 */
 	public int numUndirectedEdges() {
+		if (isFrozen()) return _undirectedEdges;
+		
 		int numUndirectedEdges = 0;
 		//count number of pairs in adjLists
 		//returns set of every entry pair
@@ -68,6 +172,8 @@ public class SegmentNodeDatabase implements ComponentNode {
 	 * @throws Exception 
 	 */
 	private void addDirectedEdge(PointNode pt1, PointNode pt2)  {
+		if (isFrozen()) throw new UnsupportedOperationException("Frozen segment database");
+		
 		if (_adjLists.get(pt1) == null) {
 			Set<PointNode> nodeSet = new HashSet<PointNode>();
 			_adjLists.put(pt1, nodeSet);
@@ -113,6 +219,8 @@ public class SegmentNodeDatabase implements ComponentNode {
 	 * @param list- list of points that point is next to
 	 */
 	public void addAdjacencyList(PointNode point, List<PointNode> list) {
+		if (isFrozen()) throw new UnsupportedOperationException("Frozen segment database");
+		
 		//turn into set
 		//Add point as the key as d list as the "value" pair to _adjLists
 		_adjLists.put(point, this.listToSet(list));
@@ -126,7 +234,7 @@ public class SegmentNodeDatabase implements ComponentNode {
 	public List<SegmentNode> asSegmentList() {
 		List<SegmentNode> segmentList = new ArrayList<SegmentNode>();
 		//loop through each list in adjLists
-		for (Map.Entry<PointNode, Set<PointNode>> OuterPoint: _adjLists.entrySet()) {
+		for (Map.Entry<PointNode, Set<PointNode>> OuterPoint: get_adjLists().entrySet()) {
 			//loop through list values
 			for (PointNode value: OuterPoint.getValue()) {
 				SegmentNode tempSegment = new SegmentNode(OuterPoint.getKey(), value);
@@ -137,34 +245,46 @@ public class SegmentNodeDatabase implements ComponentNode {
 		
 	}
 	/**
-	 * Helper Method to check if a segment's compliment exists in the list 
+	 * Helper Method to check if a segment's compliment has been listed
 	 * @param start of segment
 	 * @param end of segment
-	 * @param segmentList
-	 * @return True if the segmentList contains the reversed segment
+	 * @param listed segments
+	 * @return True if the listed segments contain the reversed segment
 	 */
-	private boolean hasDirectedSegment(PointNode start, PointNode end, List<SegmentNode> segmentList) {
-		SegmentNode segmentReversed = new SegmentNode(end, start);
-		//check if compliment is in list
-		if (segmentList.contains(segmentReversed)) return true;
-		//if not false
-		return false;
+	private boolean hasDirectedSegment(PointNode start, PointNode end, Set<SegmentNode> listed) {
+		return listed.contains(new SegmentNode(end, start));
 	}
 	
 	/**
-	 * Creates a list of unique segmentNodes based on the adjacency lists
+	 * Creates a list of unique segmentNodes based on the adjacency lists;
+	 * each edge is listed in the direction it is first found (linear time)
 	 * @return a unique segmentList
 	 */
 	public List<SegmentNode> asUniqueSegmentList() {
 		//unique, CANNOT have duplicate segments
 		List<SegmentNode> segmentList = new ArrayList<SegmentNode>();
+		
+		//frozen: an edge in both directions is listed from its lower numbered vertex
+		if (isFrozen()) {
+			for (int v = 0; v < _keys; v++) {
+				for (int i = _offsets[v]; i < _offsets[v + 1]; i++) {
+					int w = _neighbors[i];
+					if (v < w || !isAdjacent(w, v)) segmentList.add(new SegmentNode(_vertices[v], _vertices[w]));
+				}
+			}
+			return segmentList;
+		}
+		
+		//the same segments hashed for the compliment check
+		Set<SegmentNode> listed = new HashSet<SegmentNode>();
 		//loop through each list in adjLists
 		for (Map.Entry<PointNode, Set<PointNode>> OuterPoint: _adjLists.entrySet()) {
 			//loop through list values
 			for (PointNode value: OuterPoint.getValue()) {
 				SegmentNode tempSegment = new SegmentNode(OuterPoint.getKey(), value);
-				if (!(this.hasDirectedSegment(OuterPoint.getKey(), value, segmentList))) {
+				if (!(this.hasDirectedSegment(OuterPoint.getKey(), value, listed))) {
 					segmentList.add(tempSegment);
+					listed.add(tempSegment);
 				}
 			}
 		}
@@ -205,11 +325,11 @@ public class SegmentNodeDatabase implements ComponentNode {
 		sb.append(StringUtilities.indent(level) + "Segments:" + "\n");
 	    sb.append(StringUtilities.indent(level) + "{" + "\n");
 		
-		for (PointNode key : _adjLists.keySet()) 
+		for (Map.Entry<PointNode, Set<PointNode>> entry : get_adjLists().entrySet()) 
 		{
-			sb.append(StringUtilities.indent(level+1) + key.getName() + " : ");
+			sb.append(StringUtilities.indent(level+1) + entry.getKey().getName() + " : ");
 			
-			for(PointNode value : _adjLists.get(key)) 
+			for(PointNode value : entry.getValue()) 
 				sb.append(value.getName() + " ");
 			
 			sb.append("\n");
@@ -220,5 +340,84 @@ public class SegmentNodeDatabase implements ComponentNode {
 	}
 	
 	
+	/**
+	 * A read-only view of the frozen form as adjacency lists
+	 */
+	private class AdjacencyView extends AbstractMap<PointNode, Set<PointNode>> {
+		@Override
+		public int size() { return _keys; }
+		
+		@Override
+		public boolean containsKey(Object key) { 
+			int v = indexOf(key);
+			return v != -1 && v < _keys;
+		}
+		
+		@Override
+		public Set<PointNode> get(Object key) {
+			int v = indexOf(key);
+			return v != -1 && v < _keys ? new Neighbors(v) : null;
+		}
+		
+		@Override
+		public Set<Map.Entry<PointNode, Set<PointNode>>> entrySet() {
+			return new AbstractSet<Map.Entry<PointNode, Set<PointNode>>>() {
+				@Override
+				public int size() { return _keys; }
+				
+				@Override
+				public Iterator<Map.Entry<PointNode, Set<PointNode>>> iterator() {
+					return new Iterator<Map.Entry<PointNode, Set<PointNode>>>() {
+						private int _next = 0;
+						
+						@Override
+						public boolean hasNext() { return _next < _keys; }
+						
+						@Override
+						public Map.Entry<PointNode, Set<PointNode>> next() {
+							if (!hasNext()) throw new NoSuchElementException();
+							
+							int v = _next++;
+							return new AbstractMap.SimpleImmutableEntry<PointNode, Set<PointNode>>(_vertices[v], new Neighbors(v));
+						}
+					};
+				}
+			};
+		}
+	}
+	
+	/**
+	 * A read-only view of the neighbors of a frozen vertex
+	 */
+	private class Neighbors extends AbstractSet<PointNode> {
+		private final int _vertex;
+		
+		private Neighbors(int vertex) { _vertex = vertex; }
+		
+		@Override
+		public int size() { return _offsets[_vertex + 1] - _offsets[_vertex]; }
+		
+		@Override
+		public boolean contains(Object o) {
+			int w = indexOf(o);
+			return w != -1 && isAdjacent(_vertex, w);
+		}
+		
+		@Override
+		public Iterator<PointNode> iterator() {
+			return new Iterator<PointNode>() {
+				private int _next = _offsets[_vertex];
+				
+				@Override
+				public boolean hasNext() { return _next < _offsets[_vertex + 1]; }
+				
+				@Override
+				public PointNode next() {
+					if (!hasNext()) throw new NoSuchElementException();
+					return _vertices[_neighbors[_next++]];
+				}
+			};
+		}
+	}
 }
 
@@ -1,5 +1,10 @@
 package input.parser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import org.json.JSONArray;
@@ -94,6 +99,110 @@ public class JSONParser
 	
 	
 	
+	/**
+	 * Parse a figure as it is read (see JSONReader) rather than from a JSON
+	 * object tree; the builder receives the same calls as for parse(String).
+	 * Comments (// to the end of the line) are skipped as the text is read.
+	 * 
+	 * @param reader -- the text of a figure; it is closed when parsing is done
+	 * @return the figure as built by the builder
+	 */
+	public ComponentNode parse(Reader reader) throws ParseException
+	{
+		try (JSONReader json = new JSONReader(reader))
+		{
+			json.beginObject();
+
+			//check if the file was empty
+			//if it was then throw the exception
+			if (!json.hasNext()) throw new ParseException();
+
+			boolean found = false;
+			while (json.hasNext())
+			{
+				if (!found && json.nextName().equals(JSON_Constants.JSON_FIGURE))
+				{
+					_astRoot = figure(json);
+					found = true;
+				}
+				else json.skipValue();
+			}
+			json.endObject();
+
+			//nothing may follow the figure object
+			if (json.peek() != JSONReader.Token.END_DOCUMENT) throw new ParseException("Parse error: content after the figure");
+
+			if (!found) throw new ParseException("Parse error: no " + JSON_Constants.JSON_FIGURE);
+			return _astRoot;
+		}
+		catch (IOException e) { throw new ParseException(e); }
+	}
+
+	/**
+	 * @param in -- the (UTF-8) text of a figure; it is closed when parsing is done
+	 * @return the figure as built by the builder
+	 */
+	public ComponentNode parse(InputStream in) throws ParseException
+	{
+		return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+	}
+
+	/*
+	 * Read the members of a figure (in any order); the segments are built once the
+	 * points are known (the names of segments listed before the points are kept until then).
+	 */
+	private ComponentNode figure(JSONReader json) throws IOException
+	{
+		String desc = null;
+		boolean pointsRead = false;
+		boolean segmentsRead = false;
+		PointNodeDatabase points = null;
+		SegmentNodeDatabase segments = null;
+		List<String> pending = new ArrayList<String>();
+
+		json.beginObject();
+		while (json.hasNext())
+		{
+			switch (json.nextName())
+			{
+				case JSON_Constants.JSON_DESCRIPTION:
+					desc = json.nextString();
+					break;
+
+				case JSON_Constants.JSON_POINT_S:
+					points = nodeMaker(json);
+					pointsRead = true;
+					break;
+
+				case JSON_Constants.JSON_SEGMENTS:
+					if (pointsRead) segments = _builder.buildSegmentNodeDatabase();
+					segmentMaker(json, pointsRead, points, segments, pending);
+					segmentsRead = true;
+					break;
+
+				default:
+					json.skipValue();
+			}
+		}
+		json.endObject();
+
+		if (desc == null) throw new ParseException("Parse error: no " + JSON_Constants.JSON_DESCRIPTION);
+		if (!pointsRead) throw new ParseException("Parse error: no " + JSON_Constants.JSON_POINT_S);
+		if (!segmentsRead) throw new ParseException("Parse error: no " + JSON_Constants.JSON_SEGMENTS);
+
+		//segments listed before the points (possibly none) are built now
+		if (segments == null)
+		{
+			segments = _builder.buildSegmentNodeDatabase();
+			for (int i = 0; i < pending.size(); i += 2)
+			{
+				_builder.addSegmentToDatabase(segments, getPointNode(pending.get(i), points), getPointNode(pending.get(i + 1), points));
+			}
+		}
+
+		return _builder.buildFigureNode(desc, points, segments);
+	}
+
 	/*
 	 * 
 	 * Helper method to separate the points in a figure
@@ -120,7 +229,7 @@ public class JSONParser
 			
 			
 			PointNode point = _builder.buildPointNode(jsonPoint.getString("name"), 
-					jsonPoint.getInt("x") , jsonPoint.getInt("y"));
+					jsonPoint.getDouble("x") , jsonPoint.getDouble("y"));
 			
 			//add the point to the database
 			pointsList.add(point);
@@ -137,7 +246,40 @@ public class JSONParser
 	
 	
 	/*
-	 * 
+	 * Read the points of a figure: [ { "name" : ..., "x" : ..., "y" : ... }, ... ]
+	 */
+	private PointNodeDatabase nodeMaker(JSONReader json) throws IOException
+	{
+		List<PointNode> pointsList = new ArrayList<>();
+
+		json.beginArray();
+		while (json.hasNext())
+		{
+			String name = null;
+			double x = 0;
+			double y = 0;
+
+			json.beginObject();
+			while (json.hasNext())
+			{
+				switch (json.nextName())
+				{
+					case JSON_Constants.JSON_NAME: name = json.nextString(); break;
+					case JSON_Constants.JSON_X:    x = json.nextDouble(); break;
+					case JSON_Constants.JSON_Y:    y = json.nextDouble(); break;
+					default:                       json.skipValue();
+				}
+			}
+			json.endObject();
+
+			pointsList.add(_builder.buildPointNode(name, x, y));
+		}
+		json.endArray();
+
+		return _builder.buildPointDatabaseNode(pointsList);
+	}
+
+	/*
 	 * Helper method to separate the description
 	 * @param string builder and level
 	 */
@@ -196,19 +338,57 @@ public class JSONParser
 	}
 	
 	
+	/*
+	 * Read the segments of a figure: [ { "A" : [ "B", "C" ] }, ... ]; the names are
+	 * kept in @pending (in pairs) if the points are not known yet.
+	 */
+	private void segmentMaker(JSONReader json, boolean pointsRead, PointNodeDatabase points, SegmentNodeDatabase segments,
+			                  List<String> pending) throws IOException
+	{
+		json.beginArray();
+		while (json.hasNext())
+		{
+			json.beginObject();
+			while (json.hasNext())
+			{
+				String key = json.nextName();
+				PointNode keyAsPointNode = pointsRead ? getPointNode(key, points) : null;
+
+				json.beginArray();
+				while (json.hasNext())
+				{
+					String key2 = json.nextString();
+
+					if (pointsRead) _builder.addSegmentToDatabase(segments, keyAsPointNode, getPointNode(key2, points));
+					else
+					{
+						pending.add(key);
+						pending.add(key2);
+					}
+				}
+				json.endArray();
+			}
+			json.endObject();
+		}
+		json.endArray();
+	}
+
 	/**
 	 * Helper method for segmentMaker()
-	 * */
+	 * 
+	 * @param s -- the name of a point
+	 * @param points -- the points of the figure (null if the builder builds none)
+	 * @return the point named @s; null if the builder builds no points
+	 * @throws ParseException if there is no point named @s
+	 */
 	private PointNode getPointNode(String s, PointNodeDatabase points) 
 	{
-		Object[] pointsList = points.asArray();
-		for(int i = 0; i < points.getSize(); i++) 
-		{
-			PointNode checker = (PointNode) pointsList[i];
-			if(checker.getName().equals(s))
-				return checker;
-		}
-		return null;
+		if (points == null) return null;
+
+		PointNode node = points.getPoint(s);
+		if (node == null) throw new ParseException("Parse error: no point named " + s);
+
+		return node;
 	}
 
 }
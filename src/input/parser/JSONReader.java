@@ -0,0 +1,363 @@
+package input.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import input.exception.ParseException;
+
+/**
+ * A pull (streaming) reader of JSON text: the values of a document are read
+ * one token at a time, in document order, so memory is bounded by the
+ * nesting depth and the longest token rather than the size of the input.
+ *
+ *     reader.beginObject();
+ *     while (reader.hasNext())
+ *     {
+ *         String name = reader.nextName();
+ *         ...read (or skipValue()) the value of name...
+ *     }
+ *     reader.endObject();
+ *
+ * Comments in the style of the input files (// to the end of the line;
+ * see global.Constants.INPUT_FILE_COMMENT_PREFIX) are skipped wherever
+ * whitespace is allowed.
+ */
+public class JSONReader implements Closeable
+{
+	/**
+	 * The kinds of tokens
+	 *    BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY -- { } [ ]
+	 *    NAME         -- the name of a member of an object
+	 *    STRING       -- a string value
+	 *    NUMBER       -- a number
+	 *    LITERAL      -- true, false or null
+	 *    END_DOCUMENT -- the end of the input
+	 */
+	public enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, LITERAL, END_DOCUMENT }
+
+	// Scopes: where the reader is in each enclosing value
+	private static final int EMPTY_DOCUMENT = 0;
+	private static final int NONEMPTY_DOCUMENT = 1;
+	private static final int EMPTY_OBJECT = 2;
+	private static final int NONEMPTY_OBJECT = 3;
+	private static final int DANGLING_NAME = 4;
+	private static final int EMPTY_ARRAY = 5;
+	private static final int NONEMPTY_ARRAY = 6;
+
+	private final Reader _in;
+	private final char[] _buffer = new char[8192];
+	private int _pos;
+	private int _limit;
+	private int _line = 1;
+
+	private int[] _scopes = new int[16];
+	private int _depth;
+
+	// The next token (if peeked); its first character has been consumed
+	// except for a number or a literal
+	private Token _peeked;
+
+	/**
+	 * @param in -- JSON text
+	 */
+	public JSONReader(Reader in)
+	{
+		_in = in;
+		_scopes[_depth++] = EMPTY_DOCUMENT;
+	}
+
+	/**
+	 * @return the kind of the next token (which is not consumed)
+	 */
+	public Token peek() throws IOException
+	{
+		if (_peeked != null) return _peeked;
+
+		int scope = _scopes[_depth - 1];
+		switch (scope)
+		{
+			case EMPTY_DOCUMENT:
+				_scopes[_depth - 1] = NONEMPTY_DOCUMENT;
+				return _peeked = value(nextNonWhitespace());
+
+			case NONEMPTY_DOCUMENT:
+				if (nextNonWhitespace() == -1) return _peeked = Token.END_DOCUMENT;
+				throw error("Unexpected content after the document");
+
+			case EMPTY_OBJECT:
+			case NONEMPTY_OBJECT:
+			{
+				_scopes[_depth - 1] = DANGLING_NAME;
+				int c = nextNonWhitespace();
+				if (c == '}') return _peeked = Token.END_OBJECT;
+				if (scope == NONEMPTY_OBJECT)
+				{
+					if (c != ',') throw error("Expected ',' or '}'");
+					c = nextNonWhitespace();
+				}
+				if (c != '"') throw error("Expected a name");
+				return _peeked = Token.NAME;
+			}
+
+			case DANGLING_NAME:
+				_scopes[_depth - 1] = NONEMPTY_OBJECT;
+				if (nextNonWhitespace() != ':') throw error("Expected ':'");
+				return _peeked = value(nextNonWhitespace());
+
+			case EMPTY_ARRAY:
+			case NONEMPTY_ARRAY:
+			{
+				_scopes[_depth - 1] = NONEMPTY_ARRAY;
+				int c = nextNonWhitespace();
+				if (c == ']') return _peeked = Token.END_ARRAY;
+				if (scope == NONEMPTY_ARRAY)
+				{
+					if (c != ',') throw error("Expected ',' or ']'");
+					c = nextNonWhitespace();
+				}
+				return _peeked = value(c);
+			}
+
+			default: throw new IllegalStateException();
+		}
+	}
+
+	/*
+	 * @param c -- the first character of a value
+	 * @return the kind of the value
+	 */
+	private Token value(int c)
+	{
+		switch (c)
+		{
+			case '{': return Token.BEGIN_OBJECT;
+			case '[': return Token.BEGIN_ARRAY;
+			case '"': return Token.STRING;
+			case -1:  throw error("Unexpected end of input");
+		}
+
+		// a number or a literal is read in full when it is consumed
+		unread();
+		if (c == '-' || (c >= '0' && c <= '9')) return Token.NUMBER;
+		if (Character.isLetter(c)) return Token.LITERAL;
+
+		throw error("Unexpected character '" + (char)c + "'");
+	}
+
+	/**
+	 * @return true if the current object or array has another member
+	 */
+	public boolean hasNext() throws IOException
+	{
+		Token token = peek();
+		return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+	}
+
+	public void beginObject() throws IOException
+	{
+		expect(Token.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+	}
+
+	public void endObject() throws IOException
+	{
+		expect(Token.END_OBJECT);
+		_depth--;
+	}
+
+	public void beginArray() throws IOException
+	{
+		expect(Token.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+	}
+
+	public void endArray() throws IOException
+	{
+		expect(Token.END_ARRAY);
+		_depth--;
+	}
+
+	/**
+	 * @return the name of the next member of the current object
+	 */
+	public String nextName() throws IOException
+	{
+		expect(Token.NAME);
+		return string();
+	}
+
+	/**
+	 * @return the next string value
+	 */
+	public String nextString() throws IOException
+	{
+		expect(Token.STRING);
+		return string();
+	}
+
+	/**
+	 * @return the next (number) value
+	 */
+	public double nextDouble() throws IOException
+	{
+		expect(Token.NUMBER);
+
+		String number = word();
+		try { return Double.parseDouble(number); }
+		catch (NumberFormatException e) { throw error("Malformed number " + number); }
+	}
+
+	/**
+	 * Skip the next value (with all values nested in it) or the next name and its value.
+	 */
+	public void skipValue() throws IOException
+	{
+		int depth = 0;
+		do
+		{
+			switch (peek())
+			{
+				case BEGIN_OBJECT: beginObject(); depth++; break;
+				case BEGIN_ARRAY:  beginArray(); depth++; break;
+				case END_OBJECT:   endObject(); depth--; break;
+				case END_ARRAY:    endArray(); depth--; break;
+				case NAME:         nextName(); skipValue(); break;
+				case STRING:       nextString(); break;
+				case END_DOCUMENT: throw error("Unexpected end of input");
+				default:           _peeked = null; word(); break;
+			}
+		}
+		while (depth > 0);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		_in.close();
+	}
+
+	private void expect(Token token) throws IOException
+	{
+		if (peek() != token) throw error("Expected " + token + " but was " + peek());
+		_peeked = null;
+	}
+
+	private void push(int scope)
+	{
+		if (_depth == _scopes.length) _scopes = Arrays.copyOf(_scopes, 2 * _depth);
+		_scopes[_depth++] = scope;
+	}
+
+	/*
+	 * @return the characters of a string (the opening quote is consumed) up to and including its closing quote
+	 */
+	private String string() throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int c = read(); c != '"'; c = read())
+		{
+			if (c == -1) throw error("Unterminated string");
+			if (c == '\\') c = escape();
+			builder.append((char)c);
+		}
+		return builder.toString();
+	}
+
+	private int escape() throws IOException
+	{
+		int c = read();
+		switch (c)
+		{
+			case 'b': return '\b';
+			case 'f': return '\f';
+			case 'n': return '\n';
+			case 'r': return '\r';
+			case 't': return '\t';
+			case '"':
+			case '\\':
+			case '/': return c;
+			case 'u':
+			{
+				int code = 0;
+				for (int i = 0; i < 4; i++)
+				{
+					int digit = Character.digit(read(), 16);
+					if (digit == -1) throw error("Malformed \\u escape");
+					code = 16 * code + digit;
+				}
+				return code;
+			}
+			default: throw error("Malformed escape");
+		}
+	}
+
+	/*
+	 * @return the characters of a number or literal
+	 */
+	private String word() throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+
+		for (int c = read(); c != -1; c = read())
+		{
+			if (Character.isWhitespace(c) || c == ',' || c == ':' || c == '}' || c == ']' || c == '/')
+			{
+				unread();
+				break;
+			}
+			builder.append((char)c);
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * @return the next character that is neither whitespace nor part of a comment; -1 at the end of the input
+	 */
+	private int nextNonWhitespace() throws IOException
+	{
+		for (int c = read(); c != -1; c = read())
+		{
+			if (Character.isWhitespace(c)) continue;
+			if (c != '/') return c;
+
+			if (read() != '/') throw error("Malformed comment");
+			for (c = read(); c != -1 && c != '\n'; c = read()) { }
+		}
+		return -1;
+	}
+
+	private int read() throws IOException
+	{
+		if (_pos == _limit)
+		{
+			// the character just read can still be pushed back (see unread)
+			_limit = _in.read(_buffer, 0, _buffer.length);
+			_pos = 0;
+			if (_limit <= 0)
+			{
+				_limit = 0;
+				return -1;
+			}
+		}
+
+		char c = _buffer[_pos++];
+		if (c == '\n') _line++;
+		return c;
+	}
+
+	/*
+	 * Push back the character just read.
+	 */
+	private void unread()
+	{
+		if (_buffer[--_pos] == '\n') _line--;
+	}
+
+	private ParseException error(String message)
+	{
+		return new ParseException("Parse error at line " + _line + ": " + message);
+	}
+}
@@ -0,0 +1,242 @@
+package input.visitor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import input.components.FigureNode;
+import input.components.point.PointNode;
+import input.components.point.PointNodeDatabase;
+import input.components.segment.SegmentNode;
+import input.components.segment.SegmentNodeDatabase;
+import utilities.io.StringUtilities;
+
+//
+// Writes a figure as JSON in the layout of the input files
+//
+//     { "Figure" : { "Description" : ..., "Points" : [...], "Segments" : [...] } }
+//
+// straight to a Writer (or OutputStream) as the figure is visited; the text
+// is parsed back to the same figure by JSONParser. The databases write the
+// "Points" and "Segments" members of the figure object.
+//
+// The object passed to each visit is the indentation level (an Integer).
+//
+public class JSONWriterVisitor implements ComponentNodeVisitor
+{
+	private final Writer _out;
+
+	/**
+	 * @param out -- the writer to which the JSON text is written (flushed after a figure)
+	 */
+	public JSONWriterVisitor(Writer out)
+	{
+		_out = out;
+	}
+
+	/**
+	 * @param out -- the stream to which the JSON text is written as UTF-8 (flushed after a figure)
+	 */
+	public JSONWriterVisitor(OutputStream out)
+	{
+		this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+	}
+
+	@Override
+	public Object visitFigureNode(FigureNode node, Object o)
+	{
+		int level = (Integer)o;
+
+		try
+		{
+			write(level, "{\n");
+			write(level + 1, "\"Figure\" :\n");
+			write(level + 1, "{\n");
+
+			write(level + 2, "\"Description\" : ");
+			string(node.getDescription());
+			_out.write(",\n");
+
+			node.getPointsDatabase().accept(this, level + 2);
+			_out.write(",\n");
+			node.getSegments().accept(this, level + 2);
+			_out.write("\n");
+
+			write(level + 1, "}\n");
+			write(level, "}\n");
+			_out.flush();
+		}
+		catch (IOException e) { throw new UncheckedIOException(e); }
+
+		return _out;
+	}
+
+	@Override
+	public Object visitPointNodeDatabase(PointNodeDatabase node, Object o)
+	{
+		int level = (Integer)o;
+
+		try
+		{
+			write(level, "\"Points\" :\n");
+			write(level, "[");
+
+			String separator = "\n";
+			for (PointNode point : node.getPoints())
+			{
+				_out.write(separator);
+				point.accept(this, level + 1);
+				separator = ",\n";
+			}
+
+			_out.write("\n");
+			write(level, "]");
+		}
+		catch (IOException e) { throw new UncheckedIOException(e); }
+
+		return _out;
+	}
+
+	@Override
+	public Object visitPointNode(PointNode node, Object o)
+	{
+		int level = (Integer)o;
+
+		try
+		{
+			write(level, "{ \"name\" : ");
+			string(node.getName());
+			_out.write(", \"x\" : ");
+			number(node.getX());
+			_out.write(", \"y\" : ");
+			number(node.getY());
+			_out.write(" }");
+		}
+		catch (IOException e) { throw new UncheckedIOException(e); }
+
+		return _out;
+	}
+
+	/**
+	 * Each undirected segment is written once: from the endpoint that comes first
+	 * (by coordinates) unless only the other endpoint lists it.
+	 */
+	@Override
+	public Object visitSegmentDatabaseNode(SegmentNodeDatabase node, Object o)
+	{
+		int level = (Integer)o;
+		Map<PointNode, Set<PointNode>> adjLists = node.get_adjLists();
+
+		try
+		{
+			write(level, "\"Segments\" :\n");
+			write(level, "[");
+
+			String separator = "\n";
+			for (Map.Entry<PointNode, Set<PointNode>> entry : adjLists.entrySet())
+			{
+				PointNode key = entry.getKey();
+
+				Iterator<PointNode> values = entry.getValue().stream()
+						.filter(value -> compare(key, value) < 0 || !adjLists.containsKey(value) || !adjLists.get(value).contains(key))
+						.iterator();
+				if (!values.hasNext()) continue;
+
+				_out.write(separator);
+				write(level + 1, "{ ");
+				string(key.getName());
+				_out.write(" : [");
+				for (String comma = ""; values.hasNext(); comma = ", ")
+				{
+					_out.write(comma);
+					string(values.next().getName());
+				}
+				_out.write("] }");
+				separator = ",\n";
+			}
+
+			_out.write("\n");
+			write(level, "]");
+		}
+		catch (IOException e) { throw new UncheckedIOException(e); }
+
+		return _out;
+	}
+
+	/**
+	 * A single segment is written as an entry of "Segments"
+	 */
+	@Override
+	public Object visitSegmentNode(SegmentNode node, Object o)
+	{
+		int level = (Integer)o;
+
+		try
+		{
+			write(level, "{ ");
+			string(node.getPoint1().getName());
+			_out.write(" : [");
+			string(node.getPoint2().getName());
+			_out.write("] }");
+		}
+		catch (IOException e) { throw new UncheckedIOException(e); }
+
+		return _out;
+	}
+
+	/*
+	 * Write @text indented to @level
+	 */
+	private void write(int level, String text) throws IOException
+	{
+		_out.write(StringUtilities.indent(level));
+		_out.write(text);
+	}
+
+	/*
+	 * The order of (distinct) points by coordinates
+	 */
+	private static int compare(PointNode p, PointNode q)
+	{
+		int c = Double.compare(p.getX(), q.getX());
+		return c != 0 ? c : Double.compare(p.getY(), q.getY());
+	}
+
+	private void string(String s) throws IOException
+	{
+		_out.write('"');
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			switch (c)
+			{
+				case '"':  _out.write("\\\""); break;
+				case '\\': _out.write("\\\\"); break;
+				case '\n': _out.write("\\n"); break;
+				case '\r': _out.write("\\r"); break;
+				case '\t': _out.write("\\t"); break;
+				default:
+					if (c < 0x20) _out.write(String.format("\\u%04x", (int)c));
+					else _out.write(c);
+			}
+		}
+		_out.write('"');
+	}
+
+	/*
+	 * Integral values are written without a fraction (as in the input files);
+	 * others in full precision
+	 */
+	private void number(double d) throws IOException
+	{
+		if (d == Math.rint(d) && Math.abs(d) < 1e15) _out.write(Long.toString((long)d));
+		else _out.write(Double.toString(d));
+	}
+}
@@ -0,0 +1,207 @@
+package preprocessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import geometry_objects.points.PointDatabase;
+import preprocessor.delegates.CollinearChainPreprocessor;
+import preprocessor.delegates.ImplicitPointPreprocessor;
+import preprocessor.delegates.ImplicitPointPreprocessor.Engine;
+import preprocessor.delegates.SegmentStore;
+import utilities.storage.FigureStorage;
+import utilities.storage.HeapStorage;
+
+/**
+ * A preprocessor that computes the same segments as Preprocessor, keeping them
+ * in a SegmentStore: points in primitive coordinate tables, segments as pairs
+ * of point ids. After the implicit points are found, the minimal segments are
+ * split over ids. The non-minimal stage builds (temporary) Segment objects for
+ * the minimal segments and joins them with CollinearChainPreprocessor; only the
+ * segments it produces are stored as ids, so that stage saves no working memory.
+ *
+ * Store layout after analyze():
+ *     point ids [0, given point count) -- the given points (in database order)
+ *     point ids [given point count, point count) -- the implicit points
+ *     segment ids [0, minimal count) -- the minimal segments
+ *     segment ids [minimal count, segment count) -- the non-minimal segments
+ */
+public class IndexedPreprocessor
+{
+	// The explicit points provided to us by the user
+	protected PointDatabase _pointDatabase;
+
+	// Minimal ('Base') segments provided by the user
+	protected Set<Segment> _givenSegments;
+
+	// All points and segments of the figure
+	protected FigureStorage _storage;
+	protected SegmentStore _store;
+	protected int _givenPointCount;
+	protected int _minimalCount;
+
+	/**
+	 * A view of all segments: maximal, minimal, and everything in between
+	 * (see Preprocessor.getAllSegments); segments are created as they are requested.
+	 */
+	public Map<Segment, Segment> getAllSegments() { return _store.asMap(); }
+	public SegmentStore getStore() { return _store; }
+	public int getMinimalSegmentCount() { return _minimalCount; }
+
+	public IndexedPreprocessor(PointDatabase points, Set<Segment> segments)
+	{
+		this(points, segments, new HeapStorage());
+	}
+
+	/**
+	 * @param storage -- (empty) storage for the store, e.g., off-heap (DirectStorage)
+	 */
+	public IndexedPreprocessor(PointDatabase points, Set<Segment> segments, FigureStorage storage)
+	{
+		_pointDatabase  = points;
+		_givenSegments = segments;
+		_storage = storage;
+
+		analyze();
+	}
+
+	/**
+	 * Invoke the precomputation procedure.
+	 */
+	public void analyze()
+	{
+		_storage.clear();
+		_store = new SegmentStore(_storage);
+
+		_pointDatabase.getPoints().forEach(p -> _store.addPoint(p));
+		_givenPointCount = _store.pointCount();
+
+		//
+		// Implicit Points, as the ids of the points on each given segment
+		//
+		List<Segment> given = new ArrayList<Segment>(_givenSegments);
+		int[][] pointsOn = implicitPointsOn(given);
+
+		//
+		// Minimal segments: each given segment split at its implicit points
+		//
+		for (int g = 0; g < given.size(); g++)
+		{
+			split(_store.addPoint(given.get(g).getPoint1()), _store.addPoint(given.get(g).getPoint2()), pointsOn[g]);
+		}
+		_minimalCount = _store.segmentCount();
+
+		//
+		// Non-minimal segments: collinear chains of minimal segments
+		//
+		constructAllNonMinimalSegments();
+	}
+
+	/*
+	 * @param given -- the given segments
+	 * @return for each given segment (by index), the ids of the implicit points on it
+	 */
+	private int[][] implicitPointsOn(List<Segment> given)
+	{
+		Map<Point, List<Segment>> incidence = ImplicitPointPreprocessor.computeIncidence(_pointDatabase, given, Engine.GRID);
+
+		Map<Segment, Integer> index = new IdentityHashMap<Segment, Integer>();
+		for (int g = 0; g < given.size(); g++) index.put(given.get(g), g);
+
+		int[] counts = new int[given.size()];
+		incidence.values().forEach(segments -> segments.forEach(s -> counts[index.get(s)]++));
+
+		int[][] pointsOn = new int[given.size()][];
+		for (int g = 0; g < given.size(); g++) pointsOn[g] = new int[counts[g]];
+
+		Arrays.fill(counts, 0);
+		incidence.forEach((p, segments) ->
+		{
+			int id = _store.addPoint(p);
+			for (Segment s : segments)
+			{
+				int g = index.get(s);
+				pointsOn[g][counts[g]++] = id;
+			}
+		});
+
+		return pointsOn;
+	}
+
+	/*
+	 * Add the pieces of segment pq split at the given (implicit) points on it;
+	 * pq itself if there are none.
+	 */
+	private void split(int p, int q, int[] pointsOn)
+	{
+		if (_store.compare(p, q) > 0)
+		{
+			int tmp = p;
+			p = q;
+			q = tmp;
+		}
+
+		// order along the segment from its lower endpoint (see Preprocessor.alongSegment)
+		double x = _store.x(p);
+		double y = _store.y(p);
+		double dx = _store.x(q) - x;
+		double dy = _store.y(q) - y;
+
+		int[] sorted = IntStream.of(pointsOn).boxed()
+				                .sorted(Comparator.comparingDouble(v -> (_store.x(v) - x) * dx + (_store.y(v) - y) * dy))
+				                .mapToInt(Integer::intValue).toArray();
+
+		int current = p;
+		for (int next : sorted)
+		{
+			_store.addSegment(current, next);
+			current = next;
+		}
+		_store.addSegment(current, q);
+	}
+
+	/*
+	 * Joins collinear minimal segments that meet end to end (see CollinearChainPreprocessor),
+	 * which runs over a Segment object for each minimal segment: the segments spanning two
+	 * or more links of each simple chain are added as pairs of point ids; the non-minimal
+	 * segments of the other (overlapping) groups are added as closed.
+	 */
+	private void constructAllNonMinimalSegments()
+	{
+		Set<Segment> minimal = new LinkedHashSet<Segment>();
+		for (int s = 0; s < _minimalCount; s++) minimal.add(_store.segment(s));
+
+		Set<Segment> closed = new LinkedHashSet<Segment>();
+		CollinearChainPreprocessor.compute(minimal, this::addChain, closed);
+
+		for (Segment s : closed)
+		{
+			_store.addSegment(_store.addPoint(s.getPoint1()), _store.addPoint(s.getPoint2()));
+		}
+	}
+
+	/*
+	 * Add every segment spanning two or more links of a chain of (stored) points.
+	 */
+	private void addChain(List<Point> chain)
+	{
+		int[] ids = new int[chain.size()];
+		for (int i = 0; i < ids.length; i++) ids[i] = _store.addPoint(chain.get(i));
+
+		for (int i = 0; i < ids.length - 2; i++)
+		{
+			for (int j = i + 2; j < ids.length; j++)
+			{
+				_store.addSegment(ids[i], ids[j]);
+			}
+		}
+	}
+}
@@ -1,19 +1,24 @@
 package preprocessor;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.SortedSet;
 
 import geometry_objects.points.Point;
 import geometry_objects.points.PointDatabase;
+import preprocessor.delegates.CollinearChainPreprocessor;
 import preprocessor.delegates.ImplicitPointPreprocessor;
+import preprocessor.delegates.LazySegmentDatabase;
+import preprocessor.delegates.SegmentGrid;
+import preprocessor.delegates.SegmentIncidence;
+import utilities.math.MathUtilities;
 import geometry_objects.Segment;
 
 public class Preprocessor
@@ -47,10 +52,51 @@ public class Preprocessor
 	protected Map<Segment, Segment> _segmentDatabase;
 	public Map<Segment, Segment> getAllSegments() { return _segmentDatabase; }
 
+	// In lazy mode the non-minimal segments are not constructed: the database
+	// (and the set of non-minimal segments) is a view of the collinear chains
+	// of the minimal segments (see LazySegmentDatabase)
+	protected boolean _lazy;
+
+	//
+	// Incremental analysis (see addSegment and removeSegment)
+	//
+	// The given segments (spatially indexed) and the implicit points each mapped
+	// to the given segments through it (see ImplicitPointPreprocessor.computeIncidence)
+	protected SegmentGrid _givenGrid;
+	protected Map<Point, List<Segment>> _incidence;
+
+	// Prepared on the first change: for each given segment, its index in the grid,
+	// the implicit points on it, the implicit segments it splits into and the minimal
+	// segments it accounts for
+	protected Map<Segment, Integer> _gridIndex;
+	protected Map<Segment, List<Point>> _pointsOn;
+	protected Map<Segment, List<Segment>> _piecesOf;
+	protected Map<Segment, List<Segment>> _minimalOf;
+
+	// The number of given segments accounting for each implicit and minimal segment,
+	// and the number of chains producing each non-minimal segment
+	protected Map<Segment, Integer> _implicitCounts;
+	protected Map<Segment, Integer> _minimalCounts;
+	protected Map<Segment, Integer> _nonMinimalCounts;
+
+	// The minimal segments at each point and the chain (linked collinear group) of each
+	protected SegmentIncidence _minimalAt;
+	protected Map<Segment, Chain> _chainOf;
+
 	public Preprocessor(PointDatabase points, Set<Segment> segments)
+	{
+		this(points, segments, false);
+	}
+
+	/**
+	 * @param lazy -- if true, getAllSegments() is a (read-only) view in which the
+	 *                non-minimal segments are created only as they are requested
+	 */
+	public Preprocessor(PointDatabase points, Set<Segment> segments, boolean lazy)
 	{
 		_pointDatabase  = points;
 		_givenSegments = segments;
+		_lazy = lazy;
 		
 		_segmentDatabase = new HashMap<Segment, Segment>();
 		
@@ -65,12 +111,15 @@ public class Preprocessor
 		//
 		// Implicit Points
 		//
-		_implicitPoints = ImplicitPointPreprocessor.compute(_pointDatabase, _givenSegments.stream().toList());
+		_givenGrid = new SegmentGrid(_givenSegments.stream().toList());
+		_incidence = ImplicitPointPreprocessor.computeIncidence(_pointDatabase, _givenGrid);
+		_implicitPoints = new LinkedHashSet<Point>(_incidence.keySet());
+		_pointsOn = null;
 
 		//
 		// Implicit Segments attributed to implicit points
 		//
-		_implicitSegments = computeImplicitBaseSegments(_implicitPoints);
+		_implicitSegments = computeImplicitBaseSegments(_incidence);
 
 		//
 		// Combine the given minimal segments and implicit segments into a true set of minimal segments
@@ -79,6 +128,12 @@ public class Preprocessor
 		//
 		_allMinimalSegments = identifyAllMinimalSegments(_implicitPoints, _givenSegments, _implicitSegments);
 
+		if (_lazy)
+		{
+			useLazyDatabase();
+			return;
+		}
+
 		//
 		// Construct all segments inductively from the base segments
 		//
@@ -87,10 +142,27 @@ public class Preprocessor
 		//
 		// Combine minimal and non-minimal into one package: our database
 		//
+		_segmentDatabase.clear();
 		_allMinimalSegments.forEach((segment) -> _segmentDatabase.put(segment, segment));
 		_nonMinimalSegments.forEach((segment) -> _segmentDatabase.put(segment, segment));
 	}
 
+	/*
+	 * Replace the database with a view of the chains of the (current) minimal segments.
+	 */
+	private void useLazyDatabase()
+	{
+		LazySegmentDatabase database = new LazySegmentDatabase(_allMinimalSegments);
+
+		_segmentDatabase = database;
+		_nonMinimalSegments = database.nonMinimalSegments();
+	}
+
+	private LazySegmentDatabase lazyDatabase()
+	{
+		return (LazySegmentDatabase)_segmentDatabase;
+	}
+
 	/**
 	 * computes the implicit segments given the implicit points. 
 	 *
@@ -104,47 +176,104 @@ public class Preprocessor
 		// looks at each segment
 		for (Segment s : _givenSegments) {
 			
-			// gets the set of imp points on the segment and converts it to a list
-			SortedSet<Point> pointsOnSegSet = s.collectOrderedPointsOnSegment(_implicitPoints2);
-			Iterator<Point> itrPoint = pointsOnSegSet.iterator();
-			
-			Segment newS = null;
-			Point currP = null;
-			
-			// determines which end point is lower
-			int cmp = s.getPoint1().compareTo(s.getPoint2());
-
-			// imp points are sorted from low to high
-			// so we start with the lower endpoint
-			if (cmp < 0) {
-				currP = s.getPoint1();
-			}
-			else if (cmp > 0){
-				currP = s.getPoint2();
-			}
-			// create segments from the endpoints to closest imp points
-			while (itrPoint.hasNext()) {
-				newS = new Segment(currP, itrPoint.next());
-				impSeg.add(newS);
-				currP = newS.getPoint2();
-			}
-			// if there was an implicit point, then connect last imp
-			// point with the remaining endpoint
-			if (s.pointLiesBetweenEndpoints(currP) && (cmp < 0)) {
-				newS = new Segment(currP, s.getPoint2());
-				impSeg.add(newS);
-			}
-			else if (s.pointLiesBetweenEndpoints(currP) && (cmp > 0)) {
-				newS = new Segment(currP, s.getPoint1());
-				impSeg.add(newS);
-			}
+			// gets the set of imp points on the segment
+			List<Point> points = new ArrayList<Point>(s.collectOrderedPointsOnSegment(_implicitPoints2));
+			points.sort(alongSegment(s));
+			split(s, points, impSeg);
 		}
 		return impSeg;	
 	}
 
+	/**
+	 * computes the implicit segments given the implicit points and, for each,
+	 * the given segments passing through it (as recorded by the ImplicitPointPreprocessor);
+	 * each given segment is split only at its own implicit points.
+	 * 
+	 * @param incidence -- implicit points mapped to the given segments through them
+	 * @return impSeg -- a set of all implicit segments
+	 */
+	protected Set<Segment> computeImplicitBaseSegments(Map<Point, List<Segment>> incidence) 
+	{
+		// the implicit points on each given segment (object)
+		Map<Segment, List<Point>> pointsOnSeg = new IdentityHashMap<Segment, List<Point>>();
+		incidence.forEach((p, segments) ->
+			segments.forEach(s -> pointsOnSeg.computeIfAbsent(s, k -> new ArrayList<Point>()).add(p)));
+
+		Set<Segment> impSeg = new HashSet<Segment>();
+		for (Segment s : _givenSegments) {
+			List<Point> points = pointsOnSeg.get(s);
+			if (points == null) continue;
+
+			points.sort(alongSegment(s));
+			split(s, points, impSeg);
+		}
+		return impSeg;
+	}
+
+	/**
+	 * Orders points on a segment from its lower (first) endpoint to the other.
+	 * Lexicographic order is not enough: on a vertical segment, computed points
+	 * may differ in x by rounding error.
+	 * 
+	 * @param s -- a segment
+	 * @return a comparator of points on s by position along s
+	 */
+	private static Comparator<Point> alongSegment(Segment s)
+	{
+		double dx = s.getPoint2().getX() - s.getPoint1().getX();
+		double dy = s.getPoint2().getY() - s.getPoint1().getY();
+
+		return Comparator.comparingDouble(p -> (p.getX() - s.getPoint1().getX()) * dx + (p.getY() - s.getPoint1().getY()) * dy);
+	}
+
+	/**
+	 * splits a segment at the given implicit points on it
+	 * 
+	 * @param s -- a given segment
+	 * @param pointsOnSeg -- the implicit points on s (sorted from its lower endpoint)
+	 * @param impSeg -- the set of implicit segments to add to
+	 */
+	private void split(Segment s, Iterable<Point> pointsOnSeg, Set<Segment> impSeg)
+	{
+		Iterator<Point> itrPoint = pointsOnSeg.iterator();
+		
+		Segment newS = null;
+		Point currP = null;
+		
+		// determines which end point is lower
+		int cmp = s.getPoint1().compareTo(s.getPoint2());
+
+		// imp points are sorted from low to high
+		// so we start with the lower endpoint
+		if (cmp < 0) {
+			currP = s.getPoint1();
+		}
+		else if (cmp > 0){
+			currP = s.getPoint2();
+		}
+		// create segments from the endpoints to closest imp points
+		while (itrPoint.hasNext()) {
+			Point nextP = itrPoint.next();
+			newS = new Segment(currP, nextP);
+			impSeg.add(newS);
+			currP = nextP;
+		}
+		// if there was an implicit point, then connect last imp
+		// point with the remaining endpoint
+		if (s.pointLiesBetweenEndpoints(currP) && (cmp < 0)) {
+			newS = new Segment(currP, s.getPoint2());
+			impSeg.add(newS);
+		}
+		else if (s.pointLiesBetweenEndpoints(currP) && (cmp > 0)) {
+			newS = new Segment(currP, s.getPoint1());
+			impSeg.add(newS);
+		}
+	}
+
 	/**
 	 * loops through each segment and checks if it is a min segment
 	 * by checking if there's an implicit point on the segment
+	 * (only implicit points near the segment can lie on it)
 	 * 
 	 * @param _implicitPoints2
 	 * @param _givenSegments2
@@ -154,56 +283,433 @@ public class Preprocessor
 	protected Set<Segment> identifyAllMinimalSegments(Set<Point> _implicitPoints2, Set<Segment> _givenSegments2, 
 																					Set<Segment> _implicitSegments2) 
 	{
-		// create boolean -> take one segment from givenSeg -> loop through impPoints -> if boolean is true after the  
 		Set<Segment> allMinSegments = new LinkedHashSet<Segment>();
-		boolean min = true;
+
+		// the implicit segments at each (implicit) point
+		SegmentIncidence impSegsAt = new SegmentIncidence(_implicitSegments2);
+
+		// the implicit points as (degenerate) segments; queries report them in order of _implicitPoints2
+		List<Segment> impPointSegs = new ArrayList<Segment>();
+		_implicitPoints2.forEach((p) -> impPointSegs.add(new Segment(p, p)));
+		SegmentGrid impPointGrid = new SegmentGrid(impPointSegs);
+
 		// loop through the segments to check if there's a imp point on given seg
-		for (Segment s : _givenSegments) {
-			for (Point p : _implicitPoints2) {
-				// if point lies on segment, set boolean to false
+		for (Segment s : _givenSegments2) {
+			boolean min = true;
+			for (Segment impPointSeg : near(impPointGrid, s)) {
+				Point p = impPointSeg.getPoint1();
+				// if point lies on segment, add the imp segs containing p to set
 				if (s.pointLiesBetweenEndpoints(p)) {
 					min = false;
-					// add imp seg containing p to set
-					for (Segment impS : _implicitSegments2) {
-						if (impS.has(p)) { 
-							allMinSegments.add(impS);
-						}
-					}
+					allMinSegments.addAll(impSegsAt.segmentsAt(p));
 				}
 			}
 			// if segment does not have any imp points, then add to set
 			if (min) allMinSegments.add(s);
-			min = true;
 		}
 		return allMinSegments;
 	}
+
+	/**
+	 * @param grid -- a spatial index
+	 * @param s -- a segment
+	 * @return the indexed segments near s; points that lie between the endpoints of s
+	 *         (GeometryUtilities.between) are at most sqrt(2) * EPSILON outside its bounding box
+	 */
+	private static List<Segment> near(SegmentGrid grid, Segment s)
+	{
+		double pad = 2 * MathUtilities.EPSILON;
+
+		return grid.query(s.minX() - pad, s.minY() - pad, s.maxX() + pad, s.maxY() + pad);
+	}
 	
 	/**
-	 * checks every segment if there is a connected segment
+	 * joins collinear minimal segments that meet end to end
+	 * (see CollinearChainPreprocessor)
 	 * 
 	 * @param _allMinimalSegments2
-	 * @return
+	 * @return all segments made up of two or more minimal segments
 	 */
 	protected Set<Segment> constructAllNonMinimalSegments(Set<Segment> _allMinimalSegments2) 
 	{
-		Set<Segment> nonMinSeg = new HashSet<Segment>();
-		// create a queue and add all minimal segments
-		Queue<Segment> q = new LinkedList<Segment>();
-		q.addAll(_allMinimalSegments2);
-		while (!q.isEmpty()) {
-			// check each segment if it's a subsegment of another
-			Segment s1 = q.remove();
-			for (Segment s2 : _allMinimalSegments2) {
-				// if the segments are collinear, share a vertex and are not the same
-				Point sharedP = s1.sharedVertex(s2);
-				if (sharedP != null && s1.coincideWithoutOverlap(s2)) {
-					Segment newS = new Segment(s1.other(sharedP), s2.other(sharedP));
-					// add the segment to queue and to set
-					q.add(newS);
-					nonMinSeg.add(newS);
+		return CollinearChainPreprocessor.compute(_allMinimalSegments2);
+	}
+
+	/**
+	 * Add a given segment and update the analysis: only the given segments near
+	 * the new segment are intersected with it, only those crossing it are split
+	 * again and only the chains of minimal segments that change are rebuilt.
+	 * The result is that of analyze() with the segment given from the start.
+	 * 
+	 * @param segment -- a segment between points of the figure
+	 */
+	public void addSegment(Segment segment)
+	{
+		prepareIncrementalAnalysis();
+		if (_gridIndex.containsKey(segment)) return;
+
+		List<Segment> touched = near(_givenGrid, segment);
+
+		_givenSegments.add(segment);
+		_gridIndex.put(segment, _givenGrid.add(segment));
+		_pointsOn.put(segment, new ArrayList<Point>());
+
+		// the implicit points on the new segment
+		for (Segment other : touched)
+		{
+			Point p = ImplicitPointPreprocessor.implicitPoint(other, segment, _pointDatabase);
+			if (p == null) continue;
+
+			List<Segment> through = _incidence.get(p);
+			if (through == null)
+			{
+				through = new ArrayList<Segment>(2);
+				_incidence.put(p, through);
+				_implicitPoints.add(p);
+			}
+			pass(through, other, p);
+			pass(through, segment, p);
+		}
+
+		touched.add(segment);
+		update(touched);
+	}
+
+	/**
+	 * Remove a given segment and update the analysis (see addSegment); the
+	 * implicit points that only the segment accounted for are removed.
+	 * 
+	 * @param segment -- a given segment
+	 */
+	public void removeSegment(Segment segment)
+	{
+		prepareIncrementalAnalysis();
+		Integer index = _gridIndex.remove(segment);
+		if (index == null) return;
+
+		Segment given = _givenGrid.get(index);
+		_givenSegments.remove(given);
+		_givenGrid.remove(index);
+
+		List<Segment> touched = near(_givenGrid, given);
+
+		for (Point p : _pointsOn.remove(given))
+		{
+			List<Segment> through = _incidence.get(p);
+			through.remove(given);
+
+			// a point remains only on segments that still cross another segment at it
+			List<Segment> crossing = new ArrayList<Segment>();
+			for (Segment s : through)
+			{
+				if (crossesAt(s, through, p)) crossing.add(s);
+				else _pointsOn.get(s).remove(p);
+			}
+			through.retainAll(crossing);
+
+			if (through.isEmpty())
+			{
+				_incidence.remove(p);
+				_implicitPoints.remove(p);
+			}
+		}
+
+		touched.add(given);
+		update(touched);
+	}
+
+	/*
+	 * Record that @segment passes through implicit point @p (once).
+	 */
+	private void pass(List<Segment> through, Segment segment, Point p)
+	{
+		if (through.contains(segment)) return;
+
+		through.add(segment);
+		_pointsOn.get(segment).add(p);
+	}
+
+	/*
+	 * @return true if @segment crosses another of the segments at @p
+	 */
+	private boolean crossesAt(Segment segment, List<Segment> segments, Point p)
+	{
+		for (Segment other : segments)
+		{
+			if (other == segment) continue;
+
+			if (p.equals(ImplicitPointPreprocessor.implicitPoint(segment, other, _pointDatabase)) ||
+				p.equals(ImplicitPointPreprocessor.implicitPoint(other, segment, _pointDatabase))) return true;
+		}
+		return false;
+	}
+
+	/*
+	 * Index the results of analyze() for incremental changes.
+	 */
+	private void prepareIncrementalAnalysis()
+	{
+		if (_pointsOn != null) return;
+
+		// the given segments are ours to change
+		_givenSegments = new LinkedHashSet<Segment>(_givenSegments);
+
+		_gridIndex = new HashMap<Segment, Integer>();
+		for (int i = 0; i < _givenGrid.size(); i++) _gridIndex.put(_givenGrid.get(i), i);
+
+		_pointsOn = new HashMap<Segment, List<Point>>();
+		_givenSegments.forEach(s -> _pointsOn.put(s, new ArrayList<Point>()));
+		_incidence.forEach((p, segments) -> segments.forEach(s -> _pointsOn.get(s).add(p)));
+
+		_piecesOf = new HashMap<Segment, List<Segment>>();
+		_minimalOf = new HashMap<Segment, List<Segment>>();
+		_implicitCounts = new HashMap<Segment, Integer>();
+		_minimalCounts = new HashMap<Segment, Integer>();
+		_nonMinimalCounts = new HashMap<Segment, Integer>();
+		_minimalAt = new SegmentIncidence(new ArrayList<Segment>());
+		_chainOf = new HashMap<Segment, Chain>();
+
+		_implicitSegments = new HashSet<Segment>();
+		_allMinimalSegments = new LinkedHashSet<Segment>();
+		if (_lazy) useLazyDatabase();
+		else
+		{
+			_nonMinimalSegments = new HashSet<Segment>();
+			_segmentDatabase.clear();
+		}
+
+		update(new ArrayList<Segment>(_givenSegments));
+	}
+
+	/*
+	 * Recompute the implicit and minimal segments of the given segments touched by a
+	 * change (those removed account for none) and rebuild the chains that change.
+	 */
+	private void update(List<Segment> touched)
+	{
+		// the minimal segments that may appear or disappear
+		Set<Segment> candidates = new LinkedHashSet<Segment>();
+		for (Segment s : touched)
+		{
+			candidates.addAll(_minimalOf.getOrDefault(s, List.of()));
+		}
+		Set<Segment> wasMinimal = new HashSet<Segment>();
+		for (Segment s : candidates) if (_allMinimalSegments.contains(s)) wasMinimal.add(s);
+
+		for (Segment s : touched)
+		{
+			count(_implicitCounts, _implicitSegments, _piecesOf.remove(s), -1);
+			count(_minimalCounts, _allMinimalSegments, _minimalOf.remove(s), -1);
+		}
+
+		for (Segment s : touched)
+		{
+			if (!_pointsOn.containsKey(s)) continue;
+
+			_piecesOf.put(s, piecesOf(s));
+			_minimalOf.put(s, minimalOf(s));
+			count(_implicitCounts, _implicitSegments, _piecesOf.get(s), +1);
+			count(_minimalCounts, _allMinimalSegments, _minimalOf.get(s), +1);
+			candidates.addAll(_minimalOf.get(s));
+		}
+
+		Set<Segment> gone = new LinkedHashSet<Segment>();
+		Set<Segment> fresh = new LinkedHashSet<Segment>();
+		for (Segment s : candidates)
+		{
+			boolean minimal = _allMinimalSegments.contains(s);
+			if (wasMinimal.contains(s) && !minimal) gone.add(s);
+			if (!wasMinimal.contains(s) && minimal) fresh.add(s);
+		}
+
+		gone.forEach(s -> _minimalAt.remove(s));
+		fresh.forEach(s -> _minimalAt.add(s));
+
+		// the (lazy) database indexes the chains that change again
+		if (_lazy)
+		{
+			gone.forEach(s -> lazyDatabase().removeMinimal(s));
+			fresh.forEach(s -> lazyDatabase().addMinimal(s));
+			rebuildChains(gone, fresh, new HashSet<Segment>());
+			return;
+		}
+
+		Set<Segment> changed = new HashSet<Segment>(gone);
+		changed.addAll(fresh);
+		rebuildChains(gone, fresh, changed);
+
+		for (Segment s : changed)
+		{
+			if (_allMinimalSegments.contains(s) || _nonMinimalSegments.contains(s)) _segmentDatabase.put(s, s);
+			else _segmentDatabase.remove(s);
+		}
+	}
+
+	/*
+	 * @return the implicit segments a given segment splits into; none if there are no implicit points on it
+	 */
+	private List<Segment> piecesOf(Segment s)
+	{
+		List<Point> points = new ArrayList<Point>(_pointsOn.get(s));
+		if (points.isEmpty()) return List.of();
+
+		points.sort(alongSegment(s));
+
+		Set<Segment> pieces = new LinkedHashSet<Segment>();
+		split(s, points, pieces);
+		return new ArrayList<Segment>(pieces);
+	}
+
+	/*
+	 * @return the minimal segments a given segment accounts for (see identifyAllMinimalSegments):
+	 *         the segment itself if no implicit point lies on it; otherwise its pieces (if any)
+	 */
+	private List<Segment> minimalOf(Segment s)
+	{
+		if (!_pointsOn.get(s).isEmpty()) return _piecesOf.get(s);
+
+		// an implicit point on s is on (another) given segment near s
+		for (Segment other : near(_givenGrid, s))
+		{
+			for (Point p : _pointsOn.get(other))
+			{
+				if (s.pointLiesBetweenEndpoints(p)) return List.of();
+			}
+		}
+		return List.of(s);
+	}
+
+	/*
+	 * Add @delta to the count of each segment; a segment is in @set while its count is positive.
+	 */
+	private static void count(Map<Segment, Integer> counts, Set<Segment> set, List<Segment> segments, int delta)
+	{
+		if (segments == null) return;
+
+		for (Segment s : segments)
+		{
+			int count = counts.getOrDefault(s, 0) + delta;
+
+			if (count > 0) counts.put(s, count);
+			else counts.remove(s);
+
+			if (count > 0) set.add(s);
+			else set.remove(s);
+		}
+	}
+
+	/*
+	 * Rebuild the chains of minimal segments that change: the chains of the minimal segments
+	 * that are @gone and of those linked to the @fresh ones are dissolved and their remaining
+	 * segments (with the fresh ones) are grouped into chains again.
+	 * Non-minimal segments that appear or disappear are added to @changed.
+	 */
+	private void rebuildChains(Set<Segment> gone, Set<Segment> fresh, Set<Segment> changed)
+	{
+		Set<Segment> loose = new LinkedHashSet<Segment>(fresh);
+
+		for (Segment s : gone) dissolve(_chainOf.get(s), loose, changed);
+		for (Segment s : fresh)
+		{
+			for (Segment other : linked(s)) dissolve(_chainOf.get(other), loose, changed);
+		}
+		loose.removeAll(gone);
+
+		// the loose segments link only to each other: group them
+		while (!loose.isEmpty())
+		{
+			Segment start = loose.iterator().next();
+
+			List<Segment> group = new ArrayList<Segment>();
+			group.add(start);
+			loose.remove(start);
+			for (int k = 0; k < group.size(); k++)
+			{
+				for (Segment other : linked(group.get(k)))
+				{
+					if (loose.remove(other)) group.add(other);
 				}
 			}
+
+			Chain chain = new Chain(group, _lazy ? lazyDatabase() : null);
+			group.forEach(s -> _chainOf.put(s, chain));
+			for (Segment s : chain._segments)
+			{
+				if (count(_nonMinimalCounts, _nonMinimalSegments, s, +1)) changed.add(s);
+			}
+		}
+	}
+
+	/*
+	 * Dissolve a chain (once): its segments are loose and its non-minimal segments are withdrawn.
+	 */
+	private void dissolve(Chain chain, Set<Segment> loose, Set<Segment> changed)
+	{
+		if (chain == null || chain._dissolved) return;
+		chain._dissolved = true;
+
+		for (Segment s : chain._members)
+		{
+			_chainOf.remove(s);
+			loose.add(s);
+		}
+		if (chain._group != null) lazyDatabase().removeGroup(chain._group);
+		for (Segment s : chain._segments)
+		{
+			if (count(_nonMinimalCounts, _nonMinimalSegments, s, -1)) changed.add(s);
+		}
+	}
+
+	/*
+	 * Add @delta to the count of a segment (see above).
+	 * @return true if the segment entered or left @set
+	 */
+	private static boolean count(Map<Segment, Integer> counts, Set<Segment> set, Segment s, int delta)
+	{
+		int before = counts.getOrDefault(s, 0);
+		count(counts, set, List.of(s), delta);
+
+		return (before > 0) != (before + delta > 0);
+	}
+
+	/*
+	 * @return the minimal segments that meet @s end to end (see CollinearChainPreprocessor)
+	 */
+	private List<Segment> linked(Segment s)
+	{
+		List<Segment> linked = new ArrayList<Segment>();
+		for (Point end : List.of(s.getPoint1(), s.getPoint2()))
+		{
+			for (Segment other : _minimalAt.segmentsAt(end))
+			{
+				if (other.equals(s) || s.sharedVertex(other) == null || !s.coincideWithoutOverlap(other)) continue;
+				if (!linked.contains(other)) linked.add(other);
+			}
+		}
+		return linked;
+	}
+
+	/*
+	 * A group of linked minimal segments and the non-minimal segments they form;
+	 * in lazy mode, the group as indexed by the database instead.
+	 */
+	protected static class Chain
+	{
+		private final List<Segment> _members;
+		private final Set<Segment> _segments;
+		private final LazySegmentDatabase.Group _group;
+		private boolean _dissolved;
+
+		/**
+		 * @param database -- the lazy database to index the group in; null to construct its segments
+		 */
+		private Chain(List<Segment> members, LazySegmentDatabase database)
+		{
+			_members = members;
+
+			boolean single = members.size() < 2;
+			_segments = single || database != null ? Set.of() : CollinearChainPreprocessor.compute(new LinkedHashSet<Segment>(members));
+			_group = single || database == null ? null : database.addGroup(members);
 		}
-		return nonMinSeg;
 	}
 }
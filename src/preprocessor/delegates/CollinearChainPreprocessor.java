@@ -0,0 +1,270 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import utilities.math.analytic_geometry.CoordinateIndex;
+
+/**
+ * Constructs the non-minimal segments of a figure from its minimal segments.
+ *
+ * Minimal segments that are collinear and meet end to end (without overlap)
+ * link into maximal chains:
+ *
+ *     A-------B-------C-------D
+ *
+ * Every sub-segment of a chain spanning two or more minimal segments
+ * (AC, AD and BD above) is a non-minimal segment; these are emitted directly
+ * so the work is proportional to the number of segments produced.
+ *
+ * A minimal segment links to more than one segment at an endpoint only if
+ * the given collinear segments overlap; such (rare) groups are closed under
+ * joining segment by segment instead.
+ */
+public class CollinearChainPreprocessor
+{
+	/**
+	 * @param minimalSegments -- the minimal segments of a figure
+	 * @return all segments obtained by joining two or more collinear minimal segments end to end
+	 */
+	public static Set<Segment> compute(Set<Segment> minimalSegments)
+	{
+		Set<Segment> nonMinimal = new HashSet<Segment>();
+		new CollinearChainPreprocessor(new ArrayList<Segment>(minimalSegments)).chains(chain -> emit(chain, nonMinimal), nonMinimal);
+		return nonMinimal;
+	}
+
+	/**
+	 * The non-minimal segments without emitting those of the simple chains.
+	 * 
+	 * @param minimalSegments -- the minimal segments of a figure
+	 * @param chains -- receives the points of each simple chain (of two or more segments) in order along its line
+	 * @param closed -- receives the non-minimal segments of the other groups of linked segments
+	 */
+	public static void compute(Set<Segment> minimalSegments, Consumer<List<Point>> chains, Set<Segment> closed)
+	{
+		new CollinearChainPreprocessor(new ArrayList<Segment>(minimalSegments)).chains(chains, closed);
+	}
+
+	private final List<Segment> _segments;
+
+	// Segments linked to each segment at its first / second endpoint
+	private final List<List<Integer>> _links1;
+	private final List<List<Integer>> _links2;
+
+	// The vertices at the first / second endpoint of each segment
+	private final Vertex[] _vertex1;
+	private final Vertex[] _vertex2;
+
+	private CollinearChainPreprocessor(List<Segment> segments)
+	{
+		_segments = segments;
+		_links1 = new ArrayList<List<Integer>>();
+		_links2 = new ArrayList<List<Integer>>();
+		_vertex1 = new Vertex[segments.size()];
+		_vertex2 = new Vertex[segments.size()];
+
+		for (int i = 0; i < segments.size(); i++)
+		{
+			_links1.add(new ArrayList<Integer>(1));
+			_links2.add(new ArrayList<Integer>(1));
+		}
+
+		link();
+	}
+
+	/*
+	 * Link each pair of segments that meet end to end at a common vertex.
+	 */
+	private void link()
+	{
+		CoordinateIndex<Vertex> vertices = new CoordinateIndex<Vertex>(v -> v._point.getX(), v -> v._point.getY());
+		List<Vertex> all = new ArrayList<Vertex>();
+
+		for (int i = 0; i < _segments.size(); i++)
+		{
+			_vertex1[i] = vertexAt(_segments.get(i).getPoint1(), vertices, all);
+			_vertex2[i] = vertexAt(_segments.get(i).getPoint2(), vertices, all);
+
+			_vertex1[i]._segments.add(i);
+			if (_vertex2[i] != _vertex1[i]) _vertex2[i]._segments.add(i);
+		}
+
+		for (Vertex v : all)
+		{
+			for (int a = 0; a < v._segments.size() - 1; a++)
+			{
+				for (int b = a + 1; b < v._segments.size(); b++)
+				{
+					int i = v._segments.get(a);
+					int j = v._segments.get(b);
+
+					Segment s1 = _segments.get(i);
+					Segment s2 = _segments.get(j);
+					if (s1.sharedVertex(s2) == null || !s1.coincideWithoutOverlap(s2)) continue;
+
+					linksAt(i, v).add(j);
+					linksAt(j, v).add(i);
+				}
+			}
+		}
+	}
+
+	private Vertex vertexAt(Point pt, CoordinateIndex<Vertex> vertices, List<Vertex> all)
+	{
+		Vertex v = vertices.get(pt.getX(), pt.getY());
+		if (v != null) return v;
+
+		v = new Vertex(pt);
+		vertices.put(v);
+		all.add(v);
+		return v;
+	}
+
+	private List<Integer> linksAt(int index, Vertex v)
+	{
+		return _vertex1[index] == v ? _links1.get(index) : _links2.get(index);
+	}
+
+	/*
+	 * Pass each simple chain to @chains; close every other group of linked segments into @nonMinimal.
+	 */
+	private void chains(Consumer<List<Point>> chains, Set<Segment> nonMinimal)
+	{
+		boolean[] visited = new boolean[_segments.size()];
+		for (int i = 0; i < _segments.size(); i++)
+		{
+			if (visited[i]) continue;
+
+			List<Integer> group = group(i, visited);
+			if (group.size() < 2) continue;
+
+			List<Point> chain = chain(group);
+			if (chain != null) chains.accept(chain);
+			else close(group, nonMinimal);
+		}
+	}
+
+	/*
+	 * @return the indices of all segments linked (directly or not) to segment @start
+	 */
+	private List<Integer> group(int start, boolean[] visited)
+	{
+		List<Integer> group = new ArrayList<Integer>();
+		group.add(start);
+		visited[start] = true;
+
+		for (int k = 0; k < group.size(); k++)
+		{
+			int index = group.get(k);
+			for (List<Integer> links : List.of(_links1.get(index), _links2.get(index)))
+			{
+				for (int other : links)
+				{
+					if (visited[other]) continue;
+					visited[other] = true;
+					group.add(other);
+				}
+			}
+		}
+		return group;
+	}
+
+	/*
+	 * @param group -- a group of linked segments
+	 * @return the points of the group in order along its line if the group is a simple
+	 *         chain (each segment linked to at most one segment at each end; no cycle);
+	 *         null otherwise
+	 */
+	private List<Point> chain(List<Integer> group)
+	{
+		int start = -1;
+		for (int index : group)
+		{
+			if (_vertex1[index] == _vertex2[index] || _links1.get(index).size() > 1 || _links2.get(index).size() > 1) return null;
+			if (start == -1 && (_links1.get(index).isEmpty() || _links2.get(index).isEmpty())) start = index;
+		}
+		if (start == -1) return null;
+
+		List<Point> chain = new ArrayList<Point>(group.size() + 1);
+
+		// Walk from the open end of the starting segment
+		int previous = -1;
+		int current = start;
+		boolean forward = _links1.get(start).isEmpty();
+		chain.add(forward ? _segments.get(start).getPoint1() : _segments.get(start).getPoint2());
+
+		while (current != -1 && chain.size() <= group.size())
+		{
+			Segment s = _segments.get(current);
+			chain.add(forward ? s.getPoint2() : s.getPoint1());
+
+			List<Integer> next = forward ? _links2.get(current) : _links1.get(current);
+			previous = current;
+			current = next.isEmpty() ? -1 : next.get(0);
+
+			if (current != -1) forward = _links1.get(current).contains(previous);
+		}
+
+		return chain.size() == group.size() + 1 ? chain : null;
+	}
+
+	/*
+	 * Emit every segment spanning two or more consecutive links of a chain of points.
+	 */
+	private static void emit(List<Point> chain, Set<Segment> nonMinimal)
+	{
+		for (int i = 0; i < chain.size() - 2; i++)
+		{
+			for (int j = i + 2; j < chain.size(); j++)
+			{
+				nonMinimal.add(new Segment(chain.get(i), chain.get(j)));
+			}
+		}
+	}
+
+	/*
+	 * Join segments of a group one at a time until no new segment results.
+	 */
+	private void close(List<Integer> group, Set<Segment> nonMinimal)
+	{
+		List<Segment> minimal = new ArrayList<Segment>();
+		for (int index : group) minimal.add(_segments.get(index));
+
+		Set<Segment> joined = new HashSet<Segment>();
+		Queue<Segment> q = new LinkedList<Segment>(minimal);
+		while (!q.isEmpty())
+		{
+			Segment s1 = q.remove();
+			for (Segment s2 : minimal)
+			{
+				// if the segments are collinear, share a vertex and are not the same
+				Point sharedP = s1.sharedVertex(s2);
+				if (sharedP != null && s1.coincideWithoutOverlap(s2))
+				{
+					Segment newS = new Segment(s1.other(sharedP), s2.other(sharedP));
+					if (joined.add(newS)) q.add(newS);
+				}
+			}
+		}
+		nonMinimal.addAll(joined);
+	}
+
+	/*
+	 * A point shared by the endpoints of segments.
+	 */
+	private static class Vertex
+	{
+		private final Point _point;
+		private final List<Integer> _segments = new ArrayList<Integer>(4);
+
+		private Vertex(Point pt) { _point = pt; }
+	}
+}
@@ -1,8 +1,13 @@
 package preprocessor.delegates;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import geometry_objects.Segment;
 import geometry_objects.delegates.intersections.IntersectionDelegate;
@@ -12,6 +17,17 @@ import geometry_objects.points.PointNamingFactory;
 
 public class ImplicitPointPreprocessor
 {
+	/**
+	 * The available algorithms for computing implicit points.
+	 *    BRUTE_FORCE -- check every pair of segments: O(n^2)
+	 *    SWEEP_LINE  -- Bentley-Ottmann sweep: O((n + k) log n)
+	 *    GRID        -- check only pairs with overlapping bounding boxes (SegmentGrid);
+	 *                   the points are reported in the same order as BRUTE_FORCE
+	 *    PARALLEL    -- check every pair of segments using fork / join;
+	 *                   the points are reported in the same order as BRUTE_FORCE
+	 */
+	public enum Engine { BRUTE_FORCE, SWEEP_LINE, GRID, PARALLEL }
+
 	/**
 	 * It is possible that some of the defined segments intersect
 	 * and points that are not named; we need to capture those
@@ -24,24 +40,248 @@ public class ImplicitPointPreprocessor
 	 */
 	public static Set<Point> compute(PointDatabase givenPoints, List<Segment> givenSegments)
 	{
-		Set<Point> implicitPoints = new LinkedHashSet<Point>();
+		return new LinkedHashSet<Point>(pairwise(givenPoints, givenSegments).keySet());
+	}
+
+	private static Map<Point, List<Segment>> pairwise(PointDatabase givenPoints, List<Segment> givenSegments)
+	{
+		Map<Point, List<Segment>> implicitPoints = new LinkedHashMap<Point, List<Segment>>();
 		
-		Set<Point> allGivenPoints = givenPoints.getPoints();
 		for(int i = 0; i < givenSegments.size()-1; i++) 
 		{
 			for(int j = i+1; j < givenSegments.size(); j++) 
 			{
-				
-				 Point checkPoint = givenSegments.get(i).segmentIntersection(givenSegments.get(j));
-				 
-				//checks if point of intersection is an existing point
-				if(checkPoint != null && !(allGivenPoints.contains(checkPoint))) 
-				{
-					implicitPoints.add(checkPoint);
-				}
+				record(givenSegments.get(i), givenSegments.get(j), givenPoints, implicitPoints);
 			}
 		}
 		return implicitPoints;
 	}
 
+	/*
+	 * Intersect two segments; if they cross at a point that is not an existing
+	 * point, record the point along with the two segments that pass through it.
+	 */
+	private static void record(Segment s1, Segment s2, PointDatabase givenPoints, Map<Point, List<Segment>> implicitPoints)
+	{
+		Point checkPoint = implicitPoint(s1, s2, givenPoints);
+		if (checkPoint == null) return;
+
+		List<Segment> through = implicitPoints.computeIfAbsent(checkPoint, k -> new ArrayList<Segment>(2));
+		addSegment(through, s1);
+		addSegment(through, s2);
+	}
+
+	/**
+	 * @param s1, s2 -- two segments
+	 * @param givenPoints -- the explicit points of the figure
+	 * @return the point at which the segments cross if it is not an existing point; null otherwise
+	 */
+	public static Point implicitPoint(Segment s1, Segment s2, PointDatabase givenPoints)
+	{
+		Point checkPoint = s1.segmentIntersection(s2);
+
+		//checks if point of intersection is an existing point (within epsilon; equal
+		//points may hash to neighbouring cells, so the database is probed rather than its set)
+		return checkPoint == null || givenPoints.getPoint(checkPoint) != null ? null : checkPoint;
+	}
+
+	/*
+	 * Add a segment to a (short) list of segments unless the same object is already present.
+	 */
+	static void addSegment(List<Segment> segments, Segment segment)
+	{
+		for (Segment s : segments)
+		{
+			if (s == segment) return;
+		}
+		segments.add(segment);
+	}
+
+	/**
+	 * Compute the implicit points with the given engine; all engines report
+	 * the same set of points (the order of the set may differ).
+	 * 
+	 * @param givenPoints -- the explicit points of the figure
+	 * @param givenSegments -- the explicit segments of the figure
+	 * @param engine -- the algorithm to use
+	 * @return the set of implicit points
+	 */
+	public static Set<Point> compute(PointDatabase givenPoints, List<Segment> givenSegments, Engine engine)
+	{
+		return new LinkedHashSet<Point>(computeIncidence(givenPoints, givenSegments, engine).keySet());
+	}
+
+	/**
+	 * Compute the implicit points with the given engine, recording for each
+	 * point the given segments that produced it; that is, the given segments
+	 * that contain the point (strictly between their endpoints).
+	 * 
+	 * @param givenPoints -- the explicit points of the figure
+	 * @param givenSegments -- the explicit segments of the figure
+	 * @param engine -- the algorithm to use
+	 * @return the implicit points (ordered as by compute) each mapped to the
+	 *         given segment objects passing through it
+	 */
+	public static Map<Point, List<Segment>> computeIncidence(PointDatabase givenPoints, List<Segment> givenSegments, Engine engine)
+	{
+		switch (engine)
+		{
+			case SWEEP_LINE: return SweepLinePreprocessor.computeIncidence(givenPoints, givenSegments);
+			case GRID:       return computeIncidence(givenPoints, new SegmentGrid(givenSegments));
+			case PARALLEL:   return parallel(givenPoints, givenSegments, ForkJoinPool.commonPool());
+			default:         return pairwise(givenPoints, givenSegments);
+		}
+	}
+
+	/**
+	 * The pairwise algorithm restricted to segments whose bounding boxes overlap.
+	 * 
+	 * @param givenPoints -- the explicit points of the figure
+	 * @param grid -- a spatial index over the explicit segments of the figure
+	 * @return the set of implicit points
+	 */
+	public static Set<Point> computeLocal(PointDatabase givenPoints, SegmentGrid grid)
+	{
+		return new LinkedHashSet<Point>(local(givenPoints, grid).keySet());
+	}
+
+	/**
+	 * computeIncidence with the GRID engine over an existing index.
+	 * 
+	 * @param givenPoints -- the explicit points of the figure
+	 * @param grid -- a spatial index over the explicit segments of the figure
+	 * @return the implicit points each mapped to the given segment objects passing through it
+	 */
+	public static Map<Point, List<Segment>> computeIncidence(PointDatabase givenPoints, SegmentGrid grid)
+	{
+		return local(givenPoints, grid);
+	}
+
+	private static Map<Point, List<Segment>> local(PointDatabase givenPoints, SegmentGrid grid)
+	{
+		Map<Point, List<Segment>> implicitPoints = new LinkedHashMap<Point, List<Segment>>();
+
+		for (int i = 0; i < grid.size() - 1; i++)
+		{
+			// removed from the index
+			if (grid.get(i) == null) continue;
+
+			for (int j : grid.candidatesAfter(i))
+			{
+				record(grid.get(i), grid.get(j), givenPoints, implicitPoints);
+			}
+		}
+		return implicitPoints;
+	}
+
+	/**
+	 * The pairwise algorithm split over the (i, j) pair space with fork / join.
+	 * 
+	 * Each task handles a contiguous band of rows i (with all j > i) and
+	 * collects its points in pair order; the results of two tasks are merged
+	 * left-then-right. Since a LinkedHashMap keeps the first of any equal
+	 * (Point.equals) points, the merged set, and its order, is exactly the
+	 * set that the sequential algorithm constructs.
+	 * 
+	 * @param givenPoints -- the explicit points of the figure
+	 * @param givenSegments -- the explicit segments of the figure
+	 * @param pool -- the pool in which to run the tasks
+	 * @return the set of implicit points
+	 */
+	public static Set<Point> computeParallel(PointDatabase givenPoints, List<Segment> givenSegments, ForkJoinPool pool)
+	{
+		return new LinkedHashSet<Point>(parallel(givenPoints, givenSegments, pool).keySet());
+	}
+
+	private static Map<Point, List<Segment>> parallel(PointDatabase givenPoints, List<Segment> givenSegments, ForkJoinPool pool)
+	{
+		return pool.invoke(new PairTask(givenPoints, givenSegments, 0, givenSegments.size()));
+	}
+
+	/*
+	 * Computes the implicit points for all pairs (i, j) with low <= i < high and i < j.
+	 */
+	private static class PairTask extends RecursiveTask<Map<Point, List<Segment>>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		// Pairs below which a task is not split further
+		private static final long THRESHOLD = 1 << 13;
+
+		private final PointDatabase _givenPoints;
+		private final List<Segment> _segments;
+		private final int _low;
+		private final int _high;
+
+		private PairTask(PointDatabase givenPoints, List<Segment> segments, int low, int high)
+		{
+			_givenPoints = givenPoints;
+			_segments = segments;
+			_low = low;
+			_high = high;
+		}
+
+		@Override
+		protected Map<Point, List<Segment>> compute()
+		{
+			if (_high - _low < 2 || pairs(_low, _high) <= THRESHOLD) return computeRows();
+
+			// Rows have unequal work (row i has n - 1 - i pairs); split the work in half
+			int mid = splitRow();
+			PairTask left = new PairTask(_givenPoints, _segments, _low, mid);
+			PairTask right = new PairTask(_givenPoints, _segments, mid, _high);
+
+			left.fork();
+			Map<Point, List<Segment>> rightPoints = right.compute();
+			Map<Point, List<Segment>> leftPoints = left.join();
+
+			rightPoints.forEach((pt, through) ->
+			{
+				List<Segment> existing = leftPoints.putIfAbsent(pt, through);
+				if (existing != null) through.forEach(s -> addSegment(existing, s));
+			});
+			return leftPoints;
+		}
+
+		private Map<Point, List<Segment>> computeRows()
+		{
+			Map<Point, List<Segment>> implicitPoints = new LinkedHashMap<Point, List<Segment>>();
+
+			for (int i = _low; i < _high; i++)
+			{
+				for (int j = i + 1; j < _segments.size(); j++)
+				{
+					record(_segments.get(i), _segments.get(j), _givenPoints, implicitPoints);
+				}
+			}
+			return implicitPoints;
+		}
+
+		/*
+		 * @return the number of pairs (i, j) with low <= i < high and i < j
+		 */
+		private long pairs(int low, int high)
+		{
+			long n = _segments.size();
+			return (long)(high - low) * (n - 1) - ((long)low + high - 1) * (high - low) / 2;
+		}
+
+		/*
+		 * @return the row (strictly between low and high) that halves the pairs of this task
+		 */
+		private int splitRow()
+		{
+			long half = pairs(_low, _high) / 2;
+
+			int lo = _low + 1;
+			int hi = _high - 1;
+			while (lo < hi)
+			{
+				int mid = (lo + hi) >>> 1;
+				if (pairs(_low, mid) < half) lo = mid + 1;
+				else hi = mid;
+			}
+			return lo;
+		}
+	}
 }
@@ -0,0 +1,446 @@
+package preprocessor.delegates;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import utilities.math.analytic_geometry.CoordinateIndex;
+
+/**
+ * A read-only view of all segments of a figure (see Preprocessor.getAllSegments)
+ * backed by its minimal segments and their collinear chains (CollinearChainPreprocessor):
+ *
+ *     A-------B-------C-------D
+ *
+ * is kept as the points A, B, C, D rather than as the segments AC, AD and BD.
+ * A segment is a non-minimal segment of a chain if both of its endpoints lie on
+ * the chain at least two links apart; lookups check exactly that. Non-minimal
+ * segments are created only as they are requested or iterated, so memory
+ * scales with the number of minimal segments.
+ *
+ * Groups of linked segments that are not simple chains (overlapping given
+ * segments) are rare and small; their non-minimal segments are kept.
+ *
+ * For incremental analysis (see Preprocessor.addSegment) minimal segments and
+ * groups of linked minimal segments are added and removed one at a time; only
+ * the chains of the groups that change are indexed again.
+ */
+public class LazySegmentDatabase extends AbstractMap<Segment, Segment>
+{
+	// Minimal segments and the non-minimal segments of groups that are not simple chains
+	// (with the number of groups producing each)
+	private final Map<Segment, Segment> _minimal;
+	private final Map<Segment, Segment> _closed;
+	private final Map<Segment, Integer> _closedCounts;
+
+	// The points of each simple chain in order along its line; null for a removed chain
+	// (its index is reused)
+	private final List<Point[]> _chains;
+	private final List<Integer> _free;
+
+	// The chains (and positions along them) through each point
+	private final CoordinateIndex<Vertex> _vertices;
+
+	// Computed on request: equal segments of different sources are counted once
+	private int _size = -1;
+	private int _nonMinimalSize = -1;
+
+	/**
+	 * @param minimalSegments -- the minimal segments of a figure
+	 */
+	public LazySegmentDatabase(Set<Segment> minimalSegments)
+	{
+		_minimal = new HashMap<Segment, Segment>();
+		minimalSegments.forEach(s -> _minimal.put(s, s));
+
+		_chains = new ArrayList<Point[]>();
+		_free = new ArrayList<Integer>();
+		_vertices = new CoordinateIndex<Vertex>(v -> v._point.getX(), v -> v._point.getY());
+
+		Set<Segment> closed = new HashSet<Segment>();
+		CollinearChainPreprocessor.compute(minimalSegments, chain -> addChain(chain.toArray(new Point[0])), closed);
+
+		_closed = new HashMap<Segment, Segment>();
+		_closedCounts = new HashMap<Segment, Integer>();
+		closed.forEach(s -> close(s, +1));
+	}
+
+	/**
+	 * @param s -- a minimal segment
+	 */
+	public void addMinimal(Segment s)
+	{
+		_minimal.put(s, s);
+		modified();
+	}
+
+	/**
+	 * @param s -- a minimal segment
+	 */
+	public void removeMinimal(Segment s)
+	{
+		_minimal.remove(s);
+		modified();
+	}
+
+	/**
+	 * Index the chain (or the non-minimal segments) of a group of linked minimal segments.
+	 * 
+	 * @param linked -- minimal segments linked end to end (see CollinearChainPreprocessor)
+	 * @return the group, to be removed again with removeGroup
+	 */
+	public Group addGroup(Collection<Segment> linked)
+	{
+		Group group = new Group();
+
+		Set<Segment> closed = new HashSet<Segment>();
+		CollinearChainPreprocessor.compute(new LinkedHashSet<Segment>(linked),
+				                           chain -> group._chains.add(addChain(chain.toArray(new Point[0]))), closed);
+
+		group._closed.addAll(closed);
+		closed.forEach(s -> close(s, +1));
+
+		modified();
+		return group;
+	}
+
+	/**
+	 * @param group -- a group returned by addGroup (once)
+	 */
+	public void removeGroup(Group group)
+	{
+		group._chains.forEach(c -> removeChain(c));
+		group._closed.forEach(s -> close(s, -1));
+
+		modified();
+	}
+
+	/*
+	 * @return the index of the chain
+	 */
+	private int addChain(Point[] chain)
+	{
+		int c = _free.isEmpty() ? _chains.size() : _free.remove(_free.size() - 1);
+
+		if (c == _chains.size()) _chains.add(chain);
+		else _chains.set(c, chain);
+
+		for (int i = 0; i < chain.length; i++) vertexAt(chain[i]).add(c, i);
+		return c;
+	}
+
+	private void removeChain(int c)
+	{
+		for (Point pt : _chains.get(c))
+		{
+			Vertex v = _vertices.get(pt.getX(), pt.getY());
+			v.remove(c);
+			if (v._size == 0) _vertices.remove(v);
+		}
+
+		_chains.set(c, null);
+		_free.add(c);
+	}
+
+	/*
+	 * Add @delta to the number of groups producing a non-minimal segment that is not on a chain.
+	 */
+	private void close(Segment s, int delta)
+	{
+		int count = _closedCounts.getOrDefault(s, 0) + delta;
+
+		if (count > 0)
+		{
+			_closedCounts.put(s, count);
+			_closed.putIfAbsent(s, s);
+		}
+		else
+		{
+			_closedCounts.remove(s);
+			_closed.remove(s);
+		}
+	}
+
+	private void modified()
+	{
+		_size = -1;
+		_nonMinimalSize = -1;
+	}
+
+	private Vertex vertexAt(Point pt)
+	{
+		Vertex v = _vertices.get(pt.getX(), pt.getY());
+		if (v != null) return v;
+
+		v = new Vertex(pt);
+		_vertices.put(v);
+		return v;
+	}
+
+	/*
+	 * @return the first chain on which @p and @q lie at least two links apart; -1 if there is none
+	 */
+	private int chainOf(Point p, Point q)
+	{
+		Vertex u = _vertices.get(p.getX(), p.getY());
+		Vertex v = _vertices.get(q.getX(), q.getY());
+		if (u == null || v == null) return -1;
+
+		for (int a = 0; a < u._size; a++)
+		{
+			for (int b = 0; b < v._size; b++)
+			{
+				if (u._chains[a] == v._chains[b] && Math.abs(u._positions[a] - v._positions[b]) >= 2) return u._chains[a];
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * @return the segment of the chain equal to @s; null if there is none
+	 */
+	private Segment chainSegment(Segment s)
+	{
+		int c = chainOf(s.getPoint1(), s.getPoint2());
+		if (c == -1) return null;
+
+		Vertex u = _vertices.get(s.getPoint1().getX(), s.getPoint1().getY());
+		Vertex v = _vertices.get(s.getPoint2().getX(), s.getPoint2().getY());
+
+		return new Segment(u._point, v._point);
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return get(key) != null;
+	}
+
+	@Override
+	public Segment get(Object key)
+	{
+		if (!(key instanceof Segment)) return null;
+		Segment s = (Segment)key;
+
+		Segment found = _minimal.get(s);
+		if (found == null) found = chainSegment(s);
+		if (found == null) found = _closed.get(s);
+
+		return found;
+	}
+
+	@Override
+	public int size()
+	{
+		if (_size == -1)
+		{
+			_size = count(new Segments(true));
+		}
+		return _size;
+	}
+
+	private static int count(Iterator<Segment> segments)
+	{
+		int count = 0;
+		for ( ; segments.hasNext(); segments.next()) count++;
+		return count;
+	}
+
+	@Override
+	public Set<Map.Entry<Segment, Segment>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<Segment, Segment>>()
+		{
+			@Override
+			public int size() { return LazySegmentDatabase.this.size(); }
+
+			@Override
+			public Iterator<Map.Entry<Segment, Segment>> iterator()
+			{
+				Iterator<Segment> segments = new Segments(true);
+
+				return new Iterator<Map.Entry<Segment, Segment>>()
+				{
+					@Override
+					public boolean hasNext() { return segments.hasNext(); }
+
+					@Override
+					public Map.Entry<Segment, Segment> next()
+					{
+						Segment s = segments.next();
+						return new AbstractMap.SimpleImmutableEntry<Segment, Segment>(s, s);
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * @return a view of the non-minimal segments (as CollinearChainPreprocessor.compute;
+	 *         overlapping given segments may make a non-minimal segment equal to a minimal one)
+	 */
+	public Set<Segment> nonMinimalSegments()
+	{
+		return new AbstractSet<Segment>()
+		{
+			@Override
+			public int size()
+			{
+				if (_nonMinimalSize == -1) _nonMinimalSize = count(new Segments(false));
+				return _nonMinimalSize;
+			}
+
+			@Override
+			public boolean contains(Object o)
+			{
+				return o instanceof Segment && (chainSegment((Segment)o) != null || _closed.containsKey(o));
+			}
+
+			@Override
+			public Iterator<Segment> iterator() { return new Segments(false); }
+		};
+	}
+
+	/*
+	 * Iterates the minimal segments (if included; in the order of the minimal set),
+	 * then each chain's non-minimal segments, then the closed segments; a segment
+	 * is reported by the first of these sources to contain it.
+	 */
+	private class Segments implements Iterator<Segment>
+	{
+		private final Iterator<Segment> _minimalSegments;
+		private final Iterator<Segment> _closedSegments = _closed.values().iterator();
+		private final Map<Segment, Segment> _reported;
+
+		// The current chain and the positions of the next segment along it
+		private int _chain = 0;
+		private int _i = 0;
+		private int _j = 1;
+
+		private Segment _next;
+
+		/**
+		 * @param minimal -- whether to include the minimal segments
+		 */
+		private Segments(boolean minimal)
+		{
+			_reported = minimal ? _minimal : Map.of();
+			_minimalSegments = _reported.values().iterator();
+			_next = advance();
+		}
+
+		@Override
+		public boolean hasNext() { return _next != null; }
+
+		@Override
+		public Segment next()
+		{
+			if (_next == null) throw new NoSuchElementException();
+
+			Segment s = _next;
+			_next = advance();
+			return s;
+		}
+
+		private Segment advance()
+		{
+			if (_minimalSegments.hasNext()) return _minimalSegments.next();
+
+			while (_chain < _chains.size())
+			{
+				Point[] chain = _chains.get(_chain);
+				if (chain == null)
+				{
+					_chain++;
+					continue;
+				}
+
+				// the next pair of points at least two links apart
+				if (++_j >= chain.length)
+				{
+					_i++;
+					_j = _i + 2;
+				}
+				if (_j >= chain.length)
+				{
+					_chain++;
+					_i = 0;
+					_j = 1;
+					continue;
+				}
+
+				Segment s = new Segment(chain[_i], chain[_j]);
+				if (!_reported.containsKey(s) && chainOf(chain[_i], chain[_j]) == _chain) return s;
+			}
+
+			while (_closedSegments.hasNext())
+			{
+				Segment s = _closedSegments.next();
+				if (!_reported.containsKey(s) && chainOf(s.getPoint1(), s.getPoint2()) == -1) return s;
+			}
+
+			return null;
+		}
+	}
+
+	/*
+	 * A point and the chains (with positions along them) through it.
+	 */
+	private static class Vertex
+	{
+		private final Point _point;
+		private int[] _chains = new int[2];
+		private int[] _positions = new int[2];
+		private int _size;
+
+		private Vertex(Point pt) { _point = pt; }
+
+		private void add(int chain, int position)
+		{
+			if (_size == _chains.length)
+			{
+				_chains = Arrays.copyOf(_chains, 2 * _size);
+				_positions = Arrays.copyOf(_positions, 2 * _size);
+			}
+			_chains[_size] = chain;
+			_positions[_size] = position;
+			_size++;
+		}
+
+		private void remove(int chain)
+		{
+			for (int a = 0; a < _size; a++)
+			{
+				if (_chains[a] != chain) continue;
+
+				_size--;
+				_chains[a] = _chains[_size];
+				_positions[a] = _positions[_size];
+				return;
+			}
+		}
+	}
+
+	/**
+	 * The chains and non-minimal segments indexed for a group of linked minimal segments.
+	 */
+	public static class Group
+	{
+		private final List<Integer> _chains = new ArrayList<Integer>(1);
+		private final List<Segment> _closed = new ArrayList<Segment>();
+
+		private Group() {}
+	}
+}
@@ -0,0 +1,334 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import geometry_objects.Segment;
+import utilities.math.MathUtilities;
+
+/**
+ * A uniform-grid (bucketed) spatial index over segments.
+ *
+ * Each segment is registered in every cell its bounding box touches; a query
+ * returns only the segments whose bounding boxes overlap the query box.
+ * Segments are identified by their index in the list given at construction
+ * so results are always reported in that (stable) order.
+ *
+ * The cell size defaults to the median segment length so that a typical
+ * segment touches only a handful of cells in sparse and dense figures alike.
+ * Segments that would touch too many cells are kept in a separate list
+ * that is checked on every query instead of flooding the grid.
+ *
+ * Segments may be added and removed after construction (the cell size is
+ * kept); an added segment takes the next index and the index of a removed
+ * segment is not reused.
+ */
+public class SegmentGrid
+{
+	private static final int MAX_CELLS_PER_SEGMENT = 64;
+
+	protected List<Segment> _segments;
+
+	// Bounding boxes by segment index
+	protected double[] _minX;
+	protected double[] _minY;
+	protected double[] _maxX;
+	protected double[] _maxY;
+
+	protected double _cellSize;
+	protected Map<Long, Bucket> _cells;
+	protected Bucket _oversized;
+
+	// Per-query marks to report each segment once without a Set
+	private int[] _marks;
+	private int _query;
+
+	public double getCellSize() { return _cellSize; }
+	public int size() { return _segments.size(); }
+
+	/**
+	 * @param index -- a segment index
+	 * @return the indexed segment; null if it was removed
+	 */
+	public Segment get(int index) { return _segments.get(index); }
+
+	/**
+	 * @param segments -- the segments to index; the cell size is chosen automatically
+	 */
+	public SegmentGrid(List<Segment> segments)
+	{
+		this(segments, cellSize(segments));
+	}
+
+	/**
+	 * @param segments -- the segments to index
+	 * @param cellSize -- the side length of each (square) cell
+	 */
+	public SegmentGrid(List<Segment> segments, double cellSize)
+	{
+		if (!(cellSize > 0)) throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+
+		_segments = new ArrayList<Segment>(segments);
+		_cellSize = cellSize;
+		_cells = new HashMap<Long, Bucket>();
+		_oversized = new Bucket();
+
+		int n = _segments.size();
+		_minX = new double[n];
+		_minY = new double[n];
+		_maxX = new double[n];
+		_maxY = new double[n];
+		_marks = new int[n];
+
+		for (int i = 0; i < n; i++) register(i);
+	}
+
+	/**
+	 * @param segment -- a segment to index
+	 * @return the index of the segment
+	 */
+	public int add(Segment segment)
+	{
+		int index = _segments.size();
+		_segments.add(segment);
+
+		if (index == _marks.length)
+		{
+			int capacity = Math.max(4, 2 * index);
+			_minX = Arrays.copyOf(_minX, capacity);
+			_minY = Arrays.copyOf(_minY, capacity);
+			_maxX = Arrays.copyOf(_maxX, capacity);
+			_maxY = Arrays.copyOf(_maxY, capacity);
+			_marks = Arrays.copyOf(_marks, capacity);
+		}
+
+		register(index);
+		return index;
+	}
+
+	/**
+	 * @param index -- the index of an indexed segment; queries no longer report it
+	 */
+	public void remove(int index)
+	{
+		if (_segments.get(index) == null) return;
+
+		_segments.set(index, null);
+
+		if (oversized(index))
+		{
+			_oversized.remove(index);
+			return;
+		}
+
+		for (int cx = cell(_minX[index]); cx <= cell(_maxX[index]); cx++)
+		{
+			for (int cy = cell(_minY[index]); cy <= cell(_maxY[index]); cy++)
+			{
+				Bucket bucket = _cells.get(key(cx, cy));
+				bucket.remove(index);
+				if (bucket._size == 0) _cells.remove(key(cx, cy));
+			}
+		}
+	}
+
+	private void register(int index)
+	{
+		Segment s = _segments.get(index);
+		_minX[index] = s.minX();
+		_minY[index] = s.minY();
+		_maxX[index] = s.maxX();
+		_maxY[index] = s.maxY();
+
+		if (oversized(index))
+		{
+			_oversized.add(index);
+			return;
+		}
+
+		for (int cx = cell(_minX[index]); cx <= cell(_maxX[index]); cx++)
+			for (int cy = cell(_minY[index]); cy <= cell(_maxY[index]); cy++)
+				_cells.computeIfAbsent(key(cx, cy), k -> new Bucket()).add(index);
+	}
+
+	/*
+	 * @return true if segment @index would touch too many cells
+	 */
+	private boolean oversized(int index)
+	{
+		long width = (long)cell(_maxX[index]) - cell(_minX[index]) + 1;
+		long height = (long)cell(_maxY[index]) - cell(_minY[index]) + 1;
+
+		return width * height > MAX_CELLS_PER_SEGMENT;
+	}
+
+	/**
+	 * @param minX, minY, maxX, maxY -- a query box
+	 * @return the segments whose bounding boxes overlap the box (in index order)
+	 */
+	public List<Segment> query(double minX, double minY, double maxX, double maxY)
+	{
+		int[] indices = collect(minX, minY, maxX, maxY, -1);
+
+		List<Segment> result = new ArrayList<Segment>(indices.length);
+		for (int index : indices) result.add(_segments.get(index));
+		return result;
+	}
+
+	/**
+	 * @param segment -- a segment (indexed or not)
+	 * @return the indexed segments whose bounding boxes overlap that of @segment
+	 */
+	public List<Segment> query(Segment segment)
+	{
+		return query(segment.minX(), segment.minY(), segment.maxX(), segment.maxY());
+	}
+
+	/**
+	 * Candidates for a pairwise pass: visiting (i, j) for each j in
+	 * candidatesAfter(i) covers every overlapping pair exactly once and in
+	 * the same order as the nested loop over all pairs.
+	 *
+	 * @param index -- the index of an indexed segment
+	 * @return ascending indices j > @index whose bounding boxes overlap segment @index
+	 */
+	public int[] candidatesAfter(int index)
+	{
+		return collect(_minX[index], _minY[index], _maxX[index], _maxY[index], index);
+	}
+
+	/*
+	 * @return ascending indices (greater than @after) of segments overlapping the box
+	 */
+	private int[] collect(double minX, double minY, double maxX, double maxY, int after)
+	{
+		// Coordinates are equal within epsilon; so are boxes
+		minX -= MathUtilities.EPSILON;
+		minY -= MathUtilities.EPSILON;
+		maxX += MathUtilities.EPSILON;
+		maxY += MathUtilities.EPSILON;
+
+		if (++_query == 0)
+		{
+			Arrays.fill(_marks, 0);
+			_query = 1;
+		}
+
+		Bucket found = new Bucket();
+		collect(_oversized, minX, minY, maxX, maxY, after, found);
+
+		int loX = cell(minX);
+		int loY = cell(minY);
+		int hiX = cell(maxX);
+		int hiY = cell(maxY);
+
+		// A huge query box visits the occupied cells rather than the empty ones
+		if ((long)(hiX - loX + 1) * (hiY - loY + 1) > _cells.size())
+		{
+			for (Bucket bucket : _cells.values()) collect(bucket, minX, minY, maxX, maxY, after, found);
+		}
+		else
+		{
+			for (int cx = loX; cx <= hiX; cx++)
+			{
+				for (int cy = loY; cy <= hiY; cy++)
+				{
+					Bucket bucket = _cells.get(key(cx, cy));
+					if (bucket != null) collect(bucket, minX, minY, maxX, maxY, after, found);
+				}
+			}
+		}
+
+		int[] indices = Arrays.copyOf(found._indices, found._size);
+		Arrays.sort(indices);
+		return indices;
+	}
+
+	private void collect(Bucket bucket, double minX, double minY, double maxX, double maxY, int after, Bucket found)
+	{
+		for (int i = 0; i < bucket._size; i++)
+		{
+			int index = bucket._indices[i];
+			if (index <= after || _marks[index] == _query) continue;
+			_marks[index] = _query;
+
+			if (_maxX[index] < minX || _minX[index] > maxX) continue;
+			if (_maxY[index] < minY || _minY[index] > maxY) continue;
+
+			found.add(index);
+		}
+	}
+
+	private int cell(double coordinate)
+	{
+		double c = Math.floor(coordinate / _cellSize);
+		return (int)Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, c));
+	}
+
+	private static long key(int cx, int cy) { return ((long)cx << 32) | (cy & 0xffffffffL); }
+
+	/**
+	 * The median segment length; if most segments are degenerate we fall back
+	 * to spreading the figure's extent over roughly sqrt(n) cells per side.
+	 *
+	 * @param segments -- a list of segments
+	 * @return a positive cell size suited to the segments
+	 */
+	public static double cellSize(List<Segment> segments)
+	{
+		if (segments.isEmpty()) return 1;
+
+		double[] lengths = new double[segments.size()];
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < lengths.length; i++)
+		{
+			Segment s = segments.get(i);
+			lengths[i] = Math.max(s.maxX() - s.minX(), s.maxY() - s.minY());
+
+			minX = Math.min(minX, s.minX());
+			minY = Math.min(minY, s.minY());
+			maxX = Math.max(maxX, s.maxX());
+			maxY = Math.max(maxY, s.maxY());
+		}
+		Arrays.sort(lengths);
+
+		double median = lengths[lengths.length / 2];
+		if (median > MathUtilities.EPSILON) return median;
+
+		double spread = Math.max(maxX - minX, maxY - minY) / Math.ceil(Math.sqrt(lengths.length));
+		return spread > MathUtilities.EPSILON ? spread : 1;
+	}
+
+	/*
+	 * A growable list of segment indices.
+	 */
+	protected static class Bucket
+	{
+		private int[] _indices = new int[4];
+		private int _size;
+
+		private void add(int index)
+		{
+			if (_size == _indices.length) _indices = Arrays.copyOf(_indices, 2 * _size);
+			_indices[_size++] = index;
+		}
+
+		/*
+		 * Remove an index (if present); the order of the others is not kept.
+		 */
+		private void remove(int index)
+		{
+			for (int i = 0; i < _size; i++)
+			{
+				if (_indices[i] != index) continue;
+
+				_indices[i] = _indices[--_size];
+				return;
+			}
+		}
+	}
+}
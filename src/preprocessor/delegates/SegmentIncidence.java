@@ -0,0 +1,94 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import utilities.math.analytic_geometry.CoordinateIndex;
+
+/**
+ * An incidence structure: maps each point to the segments that have it as an
+ * endpoint. Points are matched as in Point.equals (within epsilon).
+ *
+ * The segments at a point are kept in the order the segments were given
+ * (or added).
+ */
+public class SegmentIncidence
+{
+	private final CoordinateIndex<Vertex> _vertices;
+
+	/**
+	 * @param segments -- a collection of segments
+	 */
+	public SegmentIncidence(Collection<Segment> segments)
+	{
+		_vertices = new CoordinateIndex<Vertex>(v -> v._point.getX(), v -> v._point.getY());
+
+		for (Segment segment : segments) add(segment);
+	}
+
+	/**
+	 * @param segment -- a segment to add at both of its endpoints
+	 */
+	public void add(Segment segment)
+	{
+		Vertex v1 = vertexAt(segment.getPoint1());
+		Vertex v2 = vertexAt(segment.getPoint2());
+
+		v1._segments.add(segment);
+		if (v2 != v1) v2._segments.add(segment);
+	}
+
+	/**
+	 * @param segment -- a segment to remove (as in Segment.equals) from both of its endpoints
+	 */
+	public void remove(Segment segment)
+	{
+		remove(segment.getPoint1(), segment);
+		remove(segment.getPoint2(), segment);
+	}
+
+	private void remove(Point pt, Segment segment)
+	{
+		Vertex v = _vertices.get(pt.getX(), pt.getY());
+		if (v == null) return;
+
+		v._segments.remove(segment);
+		if (v._segments.isEmpty()) _vertices.remove(v);
+	}
+
+	private Vertex vertexAt(Point pt)
+	{
+		Vertex v = _vertices.get(pt.getX(), pt.getY());
+		if (v != null) return v;
+
+		v = new Vertex(pt);
+		_vertices.put(v);
+		return v;
+	}
+
+	/**
+	 * @param pt -- a point
+	 * @return the segments with @pt as an endpoint (in the order given); empty if none
+	 */
+	public List<Segment> segmentsAt(Point pt)
+	{
+		Vertex v = _vertices.get(pt.getX(), pt.getY());
+
+		return v == null ? Collections.emptyList() : Collections.unmodifiableList(v._segments);
+	}
+
+	/*
+	 * A point and the segments ending at it.
+	 */
+	private static class Vertex
+	{
+		private final Point _point;
+		private final List<Segment> _segments = new ArrayList<Segment>(4);
+
+		private Vertex(Point pt) { _point = pt; }
+	}
+}
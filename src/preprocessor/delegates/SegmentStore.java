@@ -0,0 +1,260 @@
+package preprocessor.delegates;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import geometry_objects.points.PointNames;
+import utilities.math.analytic_geometry.IntCoordinateIndex;
+import utilities.storage.FigureStorage;
+import utilities.storage.HeapStorage;
+
+/**
+ * A compact (struct of arrays) store of the points and segments of a figure.
+ *
+ * Points are kept in primitive coordinate tables and identified by int ids;
+ * points that are equal (within epsilon) share an id. Segments are pairs of
+ * point ids, with endpoints in lexicographic order (as in Segment), identified
+ * by int ids; since equal points share an id, equal segments share an id.
+ *
+ * Point and Segment objects are created only on request: point(id),
+ * segment(id) and the asMap() view.
+ *
+ * The points and segments are kept in a FigureStorage: on the heap by
+ * default, or off-heap (DirectStorage) for very large figures.
+ */
+public class SegmentStore
+{
+	private static final int INITIAL_CAPACITY = 16;
+
+	// Points (coordinates and name codes) and segments (endpoint ids) by id
+	private final FigureStorage _storage;
+	private final PointNames _names;
+	private final IntCoordinateIndex _pointIndex;
+
+	// Open addressing (linear probing) from packed endpoint ids to segment id + 1; 0 is empty
+	private long[] _keys;
+	private int[] _slots;
+
+	public SegmentStore()
+	{
+		this(new HeapStorage());
+	}
+
+	/**
+	 * @param storage -- (empty) storage for the points and segments
+	 */
+	public SegmentStore(FigureStorage storage)
+	{
+		_storage = storage;
+		_names = new PointNames();
+		_pointIndex = new IntCoordinateIndex(_storage::x, _storage::y);
+
+		_keys = new long[2 * INITIAL_CAPACITY];
+		_slots = new int[2 * INITIAL_CAPACITY];
+	}
+
+	public int pointCount() { return _storage.pointCount(); }
+	public int segmentCount() { return _storage.pairCount(); }
+
+	public double x(int point) { return _storage.x(point); }
+	public double y(int point) { return _storage.y(point); }
+	public String name(int point) { return _names.decode(_storage.name(point)); }
+
+	public int end1(int segment) { return _storage.first(segment); }
+	public int end2(int segment) { return _storage.second(segment); }
+
+	/**
+	 * @param pt -- a point
+	 * @return the id of the stored point equal to @pt; the point is added if there is none
+	 */
+	public int addPoint(Point pt)
+	{
+		int id = pointId(pt.getX(), pt.getY());
+		if (id != -1) return id;
+
+		id = _storage.addPoint(pt.getX(), pt.getY(), _names.encode(pt.getName()));
+		_pointIndex.put(id);
+
+		return id;
+	}
+
+	/**
+	 * @param x, y -- coordinates
+	 * @return the id of the (first) stored point equal to (x, y); -1 if there is none
+	 */
+	public int pointId(double x, double y)
+	{
+		return _pointIndex.get(x, y);
+	}
+
+	/**
+	 * @param p, q -- point ids
+	 * @return the lexicographic comparison of the points (as Point.compareTo)
+	 */
+	public int compare(int p, int q)
+	{
+		int cmp = Double.compare(x(p), x(q));
+
+		return cmp != 0 ? cmp : Double.compare(y(p), y(q));
+	}
+
+	/**
+	 * @param point -- a point id
+	 * @return a Point for the stored point
+	 */
+	public Point point(int point)
+	{
+		return new Point(name(point), x(point), y(point));
+	}
+
+	/**
+	 * @param p, q -- point ids (in either order)
+	 * @return the id of the segment pq; the segment is added if it is not stored
+	 */
+	public int addSegment(int p, int q)
+	{
+		if (compare(p, q) > 0) return addSegment(q, p);
+
+		long key = key(p, q);
+		int slot = find(key);
+		if (_slots[slot] != 0) return _slots[slot] - 1;
+
+		int id = _storage.addPair(p, q);
+
+		_keys[slot] = key;
+		_slots[slot] = id + 1;
+		if (2 * segmentCount() > _keys.length) rehash(2 * _keys.length);
+
+		return id;
+	}
+
+	/**
+	 * @param p, q -- point ids (in either order)
+	 * @return the id of the segment pq; -1 if it is not stored
+	 */
+	public int segmentId(int p, int q)
+	{
+		if (compare(p, q) > 0) return segmentId(q, p);
+
+		return _slots[find(key(p, q))] - 1;
+	}
+
+	/**
+	 * @param segment -- a segment id
+	 * @return a Segment for the stored segment
+	 */
+	public Segment segment(int segment)
+	{
+		return new Segment(point(end1(segment)), point(end2(segment)));
+	}
+
+	/**
+	 * @param segment -- a segment
+	 * @return the id of the stored segment equal to @segment; -1 if there is none
+	 */
+	public int segmentId(Segment segment)
+	{
+		int p = pointId(segment.getPoint1().getX(), segment.getPoint1().getY());
+		if (p == -1) return -1;
+
+		int q = pointId(segment.getPoint2().getX(), segment.getPoint2().getY());
+		if (q == -1) return -1;
+
+		return segmentId(p, q);
+	}
+
+	private static long key(int p, int q) { return ((long)p << 32) | (q & 0xffffffffL); }
+
+	/*
+	 * @return the slot holding @key or the empty slot where it belongs
+	 */
+	private int find(long key)
+	{
+		int mask = _keys.length - 1;
+
+		int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+		while (_slots[slot] != 0 && _keys[slot] != key) slot = (slot + 1) & mask;
+
+		return slot;
+	}
+
+	private void rehash(int capacity)
+	{
+		_keys = new long[capacity];
+		_slots = new int[capacity];
+
+		for (int id = 0; id < segmentCount(); id++)
+		{
+			long key = key(end1(id), end2(id));
+			int slot = find(key);
+			_keys[slot] = key;
+			_slots[slot] = id + 1;
+		}
+	}
+
+	/**
+	 * A read-only view of the stored segments in the form of Preprocessor.getAllSegments():
+	 * each key is mapped to an equal value. Segments are created as they are requested.
+	 *
+	 * @return a (live) map view of the store
+	 */
+	public Map<Segment, Segment> asMap()
+	{
+		return new AbstractMap<Segment, Segment>()
+		{
+			@Override
+			public int size() { return segmentCount(); }
+
+			@Override
+			public boolean containsKey(Object key)
+			{
+				return key instanceof Segment && segmentId((Segment)key) != -1;
+			}
+
+			@Override
+			public Segment get(Object key)
+			{
+				int id = key instanceof Segment ? segmentId((Segment)key) : -1;
+
+				return id == -1 ? null : segment(id);
+			}
+
+			@Override
+			public Set<Map.Entry<Segment, Segment>> entrySet()
+			{
+				return new AbstractSet<Map.Entry<Segment, Segment>>()
+				{
+					@Override
+					public int size() { return segmentCount(); }
+
+					@Override
+					public Iterator<Map.Entry<Segment, Segment>> iterator()
+					{
+						return new Iterator<Map.Entry<Segment, Segment>>()
+						{
+							private int _next = 0;
+
+							@Override
+							public boolean hasNext() { return _next < segmentCount(); }
+
+							@Override
+							public Map.Entry<Segment, Segment> next()
+							{
+								if (!hasNext()) throw new NoSuchElementException();
+
+								Segment s = segment(_next++);
+								return new AbstractMap.SimpleImmutableEntry<Segment, Segment>(s, s);
+							}
+						};
+					}
+				};
+			}
+		};
+	}
+}
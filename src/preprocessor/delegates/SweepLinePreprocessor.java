@@ -0,0 +1,333 @@
+package preprocessor.delegates;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import geometry_objects.points.PointDatabase;
+
+/**
+ * A Bentley-Ottmann sweep over the given segments; reports the same implicit
+ * points as the pairwise ImplicitPointPreprocessor in O((n + k) log n) time
+ * where k is the number of intersections.
+ *
+ * The sweep line is vertical and moves left to right; events at the same
+ * x-coordinate are processed bottom to top (lexicographic point order,
+ * as in Point.compareTo).
+ *
+ * Only segments that are adjacent on the sweep line are ever intersected.
+ * An implicit point is reported at an event whenever two or more segments
+ * pass through the event point in their interior (i.e., not at an endpoint);
+ * this is exactly the set of points the pairwise algorithm reports.
+ */
+public class SweepLinePreprocessor
+{
+	//
+	// Floating-point slack when deciding if a segment passes through an event
+	// point; this absorbs round-off only. It is deliberately much smaller than
+	// MathUtilities.EPSILON: merging nearby (but distinct) events corrupts the
+	// order of steep segments on the sweep line.
+	//
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * @param givenPoints -- the explicit points of the figure
+	 * @param givenSegments -- the explicit segments of the figure
+	 * @return the set of implicit points (ordered by the sweep)
+	 */
+	public static Set<Point> compute(PointDatabase givenPoints, List<Segment> givenSegments)
+	{
+		return new LinkedHashSet<Point>(computeIncidence(givenPoints, givenSegments).keySet());
+	}
+
+	/**
+	 * @param givenPoints -- the explicit points of the figure
+	 * @param givenSegments -- the explicit segments of the figure
+	 * @return the implicit points (ordered by the sweep) each mapped to the given
+	 *         segments passing through it
+	 */
+	public static Map<Point, List<Segment>> computeIncidence(PointDatabase givenPoints, List<Segment> givenSegments)
+	{
+		return new SweepLinePreprocessor(givenSegments).sweep(givenPoints);
+	}
+
+	// The position of the sweep line: the current event point
+	private double _sweepX;
+	private double _sweepY;
+
+	private final TreeMap<Point, Event> _events;
+	private final TreeSet<SweepSegment> _status;
+
+	// A sentinel used to locate the current event point in the status structure
+	private final SweepSegment _probe;
+
+	private SweepLinePreprocessor(List<Segment> givenSegments)
+	{
+		_events = new TreeMap<Point, Event>();
+		_status = new TreeSet<SweepSegment>(this::compareStatus);
+		_probe = new SweepSegment();
+
+		int id = 0;
+		for (Segment segment : givenSegments)
+		{
+			// Degenerate (zero-length) segments cannot cross anything
+			if (segment.getPoint1().equals(segment.getPoint2())) continue;
+
+			SweepSegment s = new SweepSegment(segment, id++);
+			eventAt(s._left)._upper.add(s);
+			eventAt(s._right)._lower.add(s);
+		}
+	}
+
+	private Event eventAt(Point pt) { return _events.computeIfAbsent(pt, Event::new); }
+
+	private Map<Point, List<Segment>> sweep(PointDatabase givenPoints)
+	{
+		Map<Point, List<Segment>> implicitPoints = new LinkedHashMap<Point, List<Segment>>();
+
+		while (!_events.isEmpty())
+		{
+			List<SweepSegment> interior = new ArrayList<SweepSegment>();
+			Point implied = handleEvent(_events.pollFirstEntry().getValue(), interior);
+
+			//checks if point of intersection is an existing point (see ImplicitPointPreprocessor.implicitPoint)
+			if (implied != null && givenPoints.getPoint(implied) == null)
+			{
+				List<Segment> through = implicitPoints.computeIfAbsent(implied, k -> new ArrayList<Segment>(interior.size()));
+				interior.forEach(s -> ImplicitPointPreprocessor.addSegment(through, s._segment));
+			}
+		}
+
+		return implicitPoints;
+	}
+
+	/**
+	 * Process a single event point p:
+	 *    (1) remove all segments passing through p from the status
+	 *    (2) reinsert those that continue (and insert those that start) in their
+	 *        order just to the right of p
+	 *    (3) check the new neighbors on the sweep line for future intersections
+	 *
+	 * @param event -- an event point
+	 * @param interior -- out: the segments containing p strictly between their endpoints
+	 * @return the implied point at p (if two segments cross at p); null otherwise
+	 */
+	private Point handleEvent(Event event, List<SweepSegment> interior)
+	{
+		Point p = event._point;
+		_sweepX = p.getX();
+		_sweepY = p.getY();
+
+		// Segments containing p are contiguous in the status; remove them all
+		List<SweepSegment> continuing = new ArrayList<SweepSegment>(event._upper);
+		Iterator<SweepSegment> itr = _status.tailSet(_probe, false).iterator();
+		while (itr.hasNext())
+		{
+			SweepSegment s = itr.next();
+			if (!throughEvent(s.yAt(_sweepX, _sweepY))) break;
+
+			itr.remove();
+			s._active = false;
+
+			// Segments continue until their own (right) endpoint event
+			if (s._right.compareTo(p) <= 0) continue;
+
+			continuing.add(s);
+			if (!s.hasEndpoint(p)) interior.add(s);
+		}
+
+		// Guard against an ending segment numerically missed by the scan above (linear; rare)
+		for (SweepSegment ending : event._lower)
+		{
+			if (ending._active) _status.removeIf(s -> s == ending);
+			ending._active = false;
+		}
+
+		// Reinsert in order just after the event point
+		continuing.sort(this::compareStatus);
+		continuing.forEach(s -> s._active = true);
+		_status.addAll(continuing);
+
+		if (continuing.isEmpty())
+		{
+			findNewEvent(_status.lower(_probe), _status.higher(_probe), p);
+		}
+		else
+		{
+			SweepSegment lowest = continuing.get(0);
+			SweepSegment highest = continuing.get(continuing.size() - 1);
+			findNewEvent(_status.lower(lowest), lowest, p);
+			findNewEvent(highest, _status.higher(highest), p);
+		}
+
+		return impliedPoint(interior);
+	}
+
+	/**
+	 * @param interior -- the segments that contain the event point in their interior
+	 * @return the intersection point (as computed by the pairwise delegate) of two
+	 *         non-collinear segments of @interior; null if there is none
+	 */
+	private Point impliedPoint(List<SweepSegment> interior)
+	{
+		if (interior.size() < 2) return null;
+
+		// Segments of extreme slope are least likely to be collinear
+		interior.sort(Comparator.comparingDouble(s -> s._slope));
+		Point implied = interior.get(0)._segment.segmentIntersection(interior.get(interior.size() - 1)._segment);
+		if (implied != null) return implied;
+
+		for (int i = 0; i < interior.size() - 1; i++)
+		{
+			for (int j = i + 1; j < interior.size(); j++)
+			{
+				implied = interior.get(i)._segment.segmentIntersection(interior.get(j)._segment);
+				if (implied != null) return implied;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * If the two segments intersect to the right of (or above) the current event,
+	 * schedule that point as an event.
+	 */
+	private void findNewEvent(SweepSegment s1, SweepSegment s2, Point p)
+	{
+		if (s1 == null || s2 == null) return;
+
+		Point inter = s1.intersect(s2);
+		if (inter != null && inter.compareTo(p) > 0) eventAt(inter);
+	}
+
+	/**
+	 * Order segments by their y-coordinate on the sweep line. Segments through
+	 * the event point are tied (up to epsilon) and are ordered by slope which
+	 * is their order just to the right of the sweep line; vertical segments
+	 * are last. All other comparisons are exact so that segments that have
+	 * not yet crossed keep their order until their intersection event.
+	 */
+	private int compareStatus(SweepSegment s1, SweepSegment s2)
+	{
+		if (s1 == s2) return 0;
+		if (s1 == _probe) return -compareStatus(s2, s1);
+
+		double y1 = s1.yAt(_sweepX, _sweepY);
+
+		// The probe sits immediately below any segment through the event point
+		if (s2 == _probe) return y1 > _sweepY || throughEvent(y1) ? 1 : -1;
+
+		double y2 = s2.yAt(_sweepX, _sweepY);
+		if (!(throughEvent(y1) && throughEvent(y2)) && y1 != y2) return Double.compare(y1, y2);
+
+		int cmp = Double.compare(s1._slope, s2._slope);
+		if (cmp != 0) return cmp;
+
+		return Integer.compare(s1._id, s2._id);
+	}
+
+	private boolean throughEvent(double y) { return Math.abs(y - _sweepY) <= TOLERANCE * Math.max(1, Math.abs(_sweepY)); }
+
+	/*
+	 * An event point and the segments that start and end there.
+	 */
+	private static class Event
+	{
+		private final Point _point;
+		private final List<SweepSegment> _upper = new ArrayList<SweepSegment>();
+		private final List<SweepSegment> _lower = new ArrayList<SweepSegment>();
+
+		private Event(Point pt) { _point = pt; }
+	}
+
+	/*
+	 * A segment with endpoints ordered lexicographically (left to right).
+	 */
+	private static class SweepSegment
+	{
+		private final Segment _segment;
+		private final int _id;
+		private final Point _left;
+		private final Point _right;
+		private final boolean _vertical;
+		private final double _slope;
+
+		// Is this segment currently on the sweep line?
+		private boolean _active;
+
+		// The probe
+		private SweepSegment()
+		{
+			_segment = null;
+			_id = -1;
+			_left = null;
+			_right = null;
+			_vertical = false;
+			_slope = 0;
+		}
+
+		private SweepSegment(Segment segment, int id)
+		{
+			_segment = segment;
+			_id = id;
+
+			boolean ordered = segment.getPoint1().compareTo(segment.getPoint2()) < 0;
+			_left = ordered ? segment.getPoint1() : segment.getPoint2();
+			_right = ordered ? segment.getPoint2() : segment.getPoint1();
+
+			_vertical = _left.getX() == _right.getX();
+			_slope = _vertical ? Double.POSITIVE_INFINITY
+					           : (_right.getY() - _left.getY()) / (_right.getX() - _left.getX());
+		}
+
+		/*
+		 * @return the y-coordinate where this segment meets the sweep line;
+		 *         a vertical segment meets the sweep line at the event point (clamped)
+		 */
+		private double yAt(double x, double eventY)
+		{
+			if (_vertical) return Math.min(Math.max(eventY, _left.getY()), _right.getY());
+
+			if (x == _left.getX()) return _left.getY();
+			if (x == _right.getX()) return _right.getY();
+
+			return _left.getY() + (x - _left.getX()) * _slope;
+		}
+
+		private boolean hasEndpoint(Point pt) { return _left.equals(pt) || _right.equals(pt); }
+
+		/*
+		 * @return the intersection point of these (finite) segments, including
+		 *         endpoints; null if they are parallel or do not meet
+		 */
+		private Point intersect(SweepSegment that)
+		{
+			double rx = _right.getX() - _left.getX();
+			double ry = _right.getY() - _left.getY();
+			double sx = that._right.getX() - that._left.getX();
+			double sy = that._right.getY() - that._left.getY();
+
+			double denom = rx * sy - ry * sx;
+			if (denom == 0) return null;
+
+			double qx = that._left.getX() - _left.getX();
+			double qy = that._left.getY() - _left.getY();
+
+			double t = (qx * sy - qy * sx) / denom;
+			double u = (qx * ry - qy * rx) / denom;
+
+			if (t < -TOLERANCE || t > 1 + TOLERANCE || u < -TOLERANCE || u > 1 + TOLERANCE) return null;
+
+			return new Point(_left.getX() + t * rx, _left.getY() + t * ry);
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package utilities.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The contents of a (figure) file without comments, read through a memory
+ * mapping of the file (FileChannel.map) rather than copied.
+ *
+ * A comment runs from // to the end of its line (see
+ * global.Constants.INPUT_FILE_COMMENT_PREFIX); unlike
+ * FileUtilities.readFileFilterComments, // inside a string is not a comment
+ * and lines (even empty ones) are kept. The file is scanned once for the
+ * comments; the contents are then available as a CharSequence (which maps
+ * positions around the comments) or, sequentially, as a Reader.
+ *
+ * A file of ASCII text is read byte for byte from the mapping; any other
+ * (UTF-8) file is decoded as a whole first.
+ */
+public class MappedFigureFile implements CharSequence
+{
+	private static final String COMMENT = global.Constants.INPUT_FILE_COMMENT_PREFIX;
+	private static final int BLOCK = 8192;
+
+	// The text: mapped bytes (ASCII) or decoded characters
+	private ByteBuffer _bytes;
+	private CharBuffer _chars;
+	private int _size;
+
+	// The comments by position in the text ([start, end); the end of line is kept)
+	private int[] _start = new int[16];
+	private int[] _end = new int[16];
+	private int _comments;
+
+	// For each comment, its position in the contents and the length of all comments up to it (inclusive)
+	private int[] _at;
+	private int[] _skip;
+
+	// The comment found by the last lookup (sequential access)
+	private int _last = -1;
+
+	private final int _length;
+
+	/**
+	 * @param path -- a file (of at most Integer.MAX_VALUE bytes)
+	 * @return the contents of the file without comments
+	 */
+	public static MappedFigureFile open(Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			if (channel.size() > Integer.MAX_VALUE) throw new IOException("File too large to map: " + path);
+
+			return new MappedFigureFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * @param bytes -- (UTF-8) text
+	 */
+	public MappedFigureFile(ByteBuffer bytes)
+	{
+		_bytes = bytes.slice();
+		_size = _bytes.limit();
+
+		// a file that is not ASCII is decoded and scanned again
+		if (!scan())
+		{
+			_chars = StandardCharsets.UTF_8.decode(_bytes);
+			_bytes = null;
+			_size = _chars.limit();
+			_comments = 0;
+			scan();
+		}
+
+		_at = new int[_comments];
+		_skip = new int[_comments];
+		int removed = 0;
+		for (int k = 0; k < _comments; k++)
+		{
+			_at[k] = _start[k] - removed;
+			removed += _end[k] - _start[k];
+			_skip[k] = removed;
+		}
+		_length = _size - removed;
+	}
+
+	private char text(int i)
+	{
+		return _bytes != null ? (char)(_bytes.get(i) & 0xff) : _chars.get(i);
+	}
+
+	/*
+	 * Copy @length characters of the text from position @from into @into (at @offset).
+	 */
+	private void text(int from, char[] into, int offset, int length, byte[] scratch)
+	{
+		if (_bytes == null)
+		{
+			_chars.get(from, into, offset, length);
+			return;
+		}
+
+		_bytes.get(from, scratch, 0, length);
+		for (int i = 0; i < length; i++) into[offset + i] = (char)(scratch[i] & 0xff);
+	}
+
+	/*
+	 * Find the comments: // outside a string up to the end of the line.
+	 * Strings do not span lines.
+	 *
+	 * @return false if the text is (mapped) bytes that are not all ASCII
+	 */
+	private boolean scan()
+	{
+		char[] block = new char[BLOCK];
+		byte[] scratch = new byte[BLOCK];
+		char[] prefix = COMMENT.toCharArray();
+
+		boolean inString = false;
+		boolean escaped = false;
+		int matched = 0;       // the characters of COMMENT just seen
+		int comment = -1;      // the start of the comment being read
+
+		for (int from = 0; from < _size; from += BLOCK)
+		{
+			int length = Math.min(BLOCK, _size - from);
+			text(from, block, 0, length, scratch);
+
+			for (int k = 0; k < length; k++)
+			{
+				char c = block[k];
+				if (c > 0x7f && _bytes != null) return false;
+
+				if (comment != -1)
+				{
+					if (c == '\n')
+					{
+						addComment(comment, from + k);
+						comment = -1;
+					}
+				}
+				else if (c == '\n')
+				{
+					inString = escaped = false;
+					matched = 0;
+				}
+				else if (inString)
+				{
+					if (escaped) escaped = false;
+					else if (c == '\\') escaped = true;
+					else if (c == '"') inString = false;
+				}
+				else if (c == prefix[matched])
+				{
+					if (++matched == prefix.length)
+					{
+						comment = from + k + 1 - matched;
+						matched = 0;
+					}
+				}
+				else
+				{
+					matched = c == prefix[0] ? 1 : 0;
+					if (c == '"') inString = true;
+				}
+			}
+		}
+		if (comment != -1) addComment(comment, _size);
+
+		return true;
+	}
+
+	private void addComment(int start, int end)
+	{
+		if (_comments == _start.length)
+		{
+			_start = Arrays.copyOf(_start, 2 * _comments);
+			_end = Arrays.copyOf(_end, 2 * _comments);
+		}
+		_start[_comments] = start;
+		_end[_comments] = end;
+		_comments++;
+	}
+
+	@Override
+	public int length() { return _length; }
+
+	@Override
+	public char charAt(int index)
+	{
+		if (index < 0 || index >= _length) throw new IndexOutOfBoundsException(index);
+
+		return text(index + skipped(index));
+	}
+
+	/*
+	 * @return the length of the comments before position @index of the contents
+	 */
+	private int skipped(int index)
+	{
+		// the last comment at or before index
+		int k = _last;
+		if ((k >= 0 && _at[k] > index) || (k + 1 < _comments && _at[k + 1] <= index))
+		{
+			k = Arrays.binarySearch(_at, 0, _comments, index);
+			if (k < 0) k = -k - 2;
+			_last = k;
+		}
+		return k == -1 ? 0 : _skip[k];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		if (start < 0 || start > end || end > _length) throw new IndexOutOfBoundsException();
+
+		StringBuilder builder = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) builder.append(charAt(i));
+		return builder.toString();
+	}
+
+	@Override
+	public String toString()
+	{
+		return subSequence(0, _length).toString();
+	}
+
+	/**
+	 * @return a reader of the contents from the beginning
+	 */
+	public Reader reader()
+	{
+		return new Reader()
+		{
+			// The next position in the text and the next comment
+			private int _next = 0;
+			private int _comment = 0;
+
+			private final byte[] _scratch = new byte[BLOCK];
+
+			@Override
+			public int read(char[] buffer, int offset, int length)
+			{
+				if (_next == _size) return -1;
+
+				int count = 0;
+				while (count < length && _next < _size)
+				{
+					if (_comment < _comments && _next == _start[_comment])
+					{
+						_next = _end[_comment++];
+						continue;
+					}
+
+					int stop = _comment < _comments ? _start[_comment] : _size;
+					int run = Math.min(Math.min(stop - _next, length - count), BLOCK);
+					text(_next, buffer, offset + count, run, _scratch);
+					_next += run;
+					count += run;
+				}
+				return count == 0 && _next == _size ? -1 : count;
+			}
+
+			@Override
+			public void close() { }
+		};
+	}
+}
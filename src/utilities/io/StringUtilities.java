@@ -2,18 +2,24 @@ package utilities.io;
 
 public class StringUtilities
 {
+	private static final String ONE_INDENT = "    ";
+
+	// Indentation for the common levels, built once
+	private static final String[] INDENTS = new String[16];
+	static
+	{
+		for (int level = 0; level < INDENTS.length; level++) INDENTS[level] = ONE_INDENT.repeat(level);
+	}
+
 	/**
 	 * @param level -- levels to which we indent
 	 * @return a string containg the corresponding number of spaces requested
 	 */
 	public static String indent(int level)
 	{
-		String oneIndent = "    ";
-
-		String s = "";
-		for (int i = 0; i < level; i++)
-			s += oneIndent;
+		if (level <= 0) return INDENTS[0];
+		if (level < INDENTS.length) return INDENTS[level];
 
-		return s;
+		return ONE_INDENT.repeat(level);
 	}
 }
@@ -29,4 +29,56 @@ public class MathUtilities
     	int value = (int)(x * Math.pow(10, EPSILON_POWER - 1));
     	return value / Math.pow(10, EPSILON_POWER - 1);
     }
+
+    /**
+     * Quantize a value to the index of its EPSILON-sized cell (rounding to the
+     * nearest multiple of EPSILON). Equal values lie in the same or adjacent cells:
+     * 
+     *    doubleEquals(a, b)  implies  |quantize(a) - quantize(b)| <= 1
+     * 
+     * Rounding (rather than truncating) keeps cell boundaries away from
+     * values near multiples of EPSILON, e.g., 4.999999999999998 and 5.
+     * 
+     * @param x -- a value
+     * @return the index of the cell containing x
+     */
+    public static long quantize(double x)
+    {
+    	return Math.round(x / EPSILON);
+    }
+
+    /**
+     * The canonical (packed) key of the cell containing (x, y); 32 bits per axis.
+     * 
+     * Contract: points that are equal (doubleEquals on each coordinate) have the
+     * same key or the key of one of the 8 neighbouring cells; a lookup for
+     * (x, y) is complete if it probes cellKey(quantize(x) + i, quantize(y) + j)
+     * for i, j in {-1, 0, 1}.
+     * 
+     * @param x, y -- coordinates
+     * @return the key of the cell containing (x, y)
+     */
+    public static long cellKey(double x, double y)
+    {
+    	return cellKey(quantize(x), quantize(y));
+    }
+
+    /**
+     * @param cx, cy -- cell indices (see quantize)
+     * @return the key of cell (cx, cy)
+     */
+    public static long cellKey(long cx, long cy)
+    {
+    	return (cx << 32) | (cy & 0xffffffffL);
+    }
+
+    /**
+     * @param x, y -- coordinates
+     * @return a hash code for (x, y) derived from its cell key (see cellKey for the
+     *         guarantee on equal points)
+     */
+    public static int cellHash(double x, double y)
+    {
+    	return Long.hashCode(cellKey(x, y) * 0x9E3779B97F4A7C15L);
+    }
 }
@@ -0,0 +1,192 @@
+package utilities.math.analytic_geometry;
+
+import java.util.function.IntPredicate;
+
+import utilities.math.MathUtilities;
+
+/**
+ * The hash table behind CoordinateIndex and IntCoordinateIndex: int references
+ * (positive; 0 marks an empty slot) to objects located at (x, y) coordinates.
+ *
+ * The plane is divided into square cells of side EPSILON. Two coordinates
+ * that are equal (MathUtilities.doubleEquals on x and y) lie in the same
+ * cell or in one of its 8 neighbours; a lookup therefore probes at most
+ * 9 cells and runs in O(1) expected time.
+ *
+ * The table uses open addressing (linear probing) on the cell; an entry
+ * is found by probing from its cell's home slot until an empty slot.
+ *
+ * Subclasses say where a reference is located and which of two references
+ * a lookup prefers when both are equal to the coordinates.
+ */
+abstract class CellTable
+{
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] _refs;
+	private long[] _cellX;
+	private long[] _cellY;
+	private int _size;
+
+	CellTable()
+	{
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * @return the coordinates of a reference
+	 */
+	protected abstract double x(int ref);
+	protected abstract double y(int ref);
+
+	/**
+	 * @return true if a lookup returns @ref rather than @other (both equal to the coordinates)
+	 */
+	protected abstract boolean precedes(int ref, int other);
+
+	public int size() { return _size; }
+
+	public void clear()
+	{
+		allocate(INITIAL_CAPACITY);
+		_size = 0;
+	}
+
+	/**
+	 * @param filter -- a condition on the references
+	 * @return the preferred reference equal to (x, y) within epsilon that satisfies
+	 *         the condition; 0 if none exists
+	 */
+	protected int find(double x, double y, IntPredicate filter)
+	{
+		long cx = cell(x);
+		long cy = cell(y);
+
+		int found = 0;
+		for (long dx = -1; dx <= 1; dx++)
+		{
+			for (long dy = -1; dy <= 1; dy++)
+			{
+				for (int slot = home(cx + dx, cy + dy); _refs[slot] != 0; slot = next(slot))
+				{
+					if (_cellX[slot] != cx + dx || _cellY[slot] != cy + dy) continue;
+
+					int ref = _refs[slot];
+					if (found != 0 && !precedes(ref, found)) continue;
+
+					if (MathUtilities.doubleEquals(x(ref), x) &&
+						MathUtilities.doubleEquals(y(ref), y) &&
+						filter.test(ref)) found = ref;
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Index a reference; no check for an existing equal reference is made.
+	 */
+	protected void insert(int ref)
+	{
+		if (2 * (_size + 1) > _refs.length) resize(2 * _refs.length);
+
+		insert(ref, cell(x(ref)), cell(y(ref)));
+		_size++;
+	}
+
+	private void insert(int ref, long cx, long cy)
+	{
+		int slot = home(cx, cy);
+		while (_refs[slot] != 0) slot = next(slot);
+
+		_refs[slot] = ref;
+		_cellX[slot] = cx;
+		_cellY[slot] = cy;
+	}
+
+	/**
+	 * @param x, y -- the coordinates at which a reference was indexed
+	 * @param which -- identifies the reference to remove
+	 * @return the removed reference; 0 if none is indexed in the cell of (x, y)
+	 */
+	protected int delete(double x, double y, IntPredicate which)
+	{
+		long cx = cell(x);
+		long cy = cell(y);
+
+		for (int slot = home(cx, cy); _refs[slot] != 0; slot = next(slot))
+		{
+			int ref = _refs[slot];
+			if (_cellX[slot] == cx && _cellY[slot] == cy && which.test(ref))
+			{
+				vacate(slot);
+				_size--;
+				return ref;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * Linear-probing deletion: shift back any later entry of the cluster
+	 * whose home slot does not lie (cyclically) after the vacated slot.
+	 */
+	private void vacate(int vacant)
+	{
+		_refs[vacant] = 0;
+
+		for (int slot = next(vacant); _refs[slot] != 0; slot = next(slot))
+		{
+			int home = home(_cellX[slot], _cellY[slot]);
+
+			boolean reachable = vacant <= slot ? (vacant < home && home <= slot)
+					                           : (vacant < home || home <= slot);
+			if (reachable) continue;
+
+			_refs[vacant] = _refs[slot];
+			_cellX[vacant] = _cellX[slot];
+			_cellY[vacant] = _cellY[slot];
+			_refs[slot] = 0;
+			vacant = slot;
+		}
+	}
+
+	private void resize(int capacity)
+	{
+		int[] refs = _refs;
+		long[] cellX = _cellX;
+		long[] cellY = _cellY;
+
+		allocate(capacity);
+		for (int slot = 0; slot < refs.length; slot++)
+			if (refs[slot] != 0) insert(refs[slot], cellX[slot], cellY[slot]);
+	}
+
+	private void allocate(int capacity)
+	{
+		_refs = new int[capacity];
+		_cellX = new long[capacity];
+		_cellY = new long[capacity];
+	}
+
+	private int next(int slot) { return (slot + 1) & (_refs.length - 1); }
+
+	private int home(long cx, long cy)
+	{
+		long h = cx * 0x9E3779B97F4A7C15L + cy;
+		h ^= h >>> 31;
+		h *= 0xBF58476D1CE4E5B9L;
+		h ^= h >>> 29;
+		return (int)h & (_refs.length - 1);
+	}
+
+	/**
+	 * @param coordinate -- a single coordinate
+	 * @return the (epsilon-sized) cell containing the coordinate; as for hashing points
+	 */
+	static long cell(double coordinate)
+	{
+		// Saturates for huge coordinates; lookups stay correct (cells merely collide)
+		return MathUtilities.quantize(coordinate);
+	}
+}
@@ -0,0 +1,141 @@
+package utilities.math.analytic_geometry;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An epsilon-aware hash index of objects located at (x, y) coordinates
+ * (see CellTable for the cells and probing).
+ *
+ * Since epsilon-equality is not transitive, several indexed objects may be
+ * equal to the same coordinates; a lookup then returns the one that was
+ * indexed first (just as a scan in insertion order would).
+ *
+ * @param <T> -- the type of the indexed objects
+ */
+public class CoordinateIndex<T> extends CellTable
+{
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final Predicate<Object> ANY = t -> true;
+
+	private final ToDoubleFunction<T> _x;
+	private final ToDoubleFunction<T> _y;
+
+	// The indexed objects and their order of indexing by reference (0 is unused);
+	// references of removed objects are reused
+	private Object[] _entries;
+	private long[] _sequence;
+	private int _used;
+	private int[] _free;
+	private int _freeCount;
+	private long _inserted;
+
+	/**
+	 * @param x -- extracts the x-coordinate of an indexed object
+	 * @param y -- extracts the y-coordinate of an indexed object
+	 */
+	public CoordinateIndex(ToDoubleFunction<T> x, ToDoubleFunction<T> y)
+	{
+		_x = x;
+		_y = y;
+		allocatePool();
+	}
+
+	@Override
+	public void clear()
+	{
+		super.clear();
+		allocatePool();
+	}
+
+	private void allocatePool()
+	{
+		_entries = new Object[INITIAL_CAPACITY];
+		_sequence = new long[INITIAL_CAPACITY];
+		_used = 1;
+		_free = new int[INITIAL_CAPACITY];
+		_freeCount = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T entry(int ref) { return (T)_entries[ref]; }
+
+	@Override
+	protected double x(int ref) { return _x.applyAsDouble(entry(ref)); }
+
+	@Override
+	protected double y(int ref) { return _y.applyAsDouble(entry(ref)); }
+
+	@Override
+	protected boolean precedes(int ref, int other) { return _sequence[ref] < _sequence[other]; }
+
+	/**
+	 * @param x -- single coordinate
+	 * @param y -- single coordinate
+	 * @return the first indexed object equal to (x, y) within epsilon; null if none exists
+	 */
+	public T get(double x, double y) { return get(x, y, ANY); }
+
+	/**
+	 * @param x -- single coordinate
+	 * @param y -- single coordinate
+	 * @param filter -- a condition on the indexed objects
+	 * @return the first indexed object equal to (x, y) within epsilon that satisfies
+	 *         the condition; null if none exists
+	 */
+	public T get(double x, double y, Predicate<? super T> filter)
+	{
+		int ref = filter == ANY ? find(x, y, r -> true) : find(x, y, r -> filter.test(entry(r)));
+
+		return ref == 0 ? null : entry(ref);
+	}
+
+	/**
+	 * Index an object; no check for an existing equal object is made.
+	 * @param t -- an object
+	 */
+	public void put(T t)
+	{
+		int ref;
+		if (_freeCount > 0) ref = _free[--_freeCount];
+		else
+		{
+			if (_used == _entries.length)
+			{
+				_entries = Arrays.copyOf(_entries, 2 * _used);
+				_sequence = Arrays.copyOf(_sequence, 2 * _used);
+			}
+			ref = _used++;
+		}
+
+		_entries[ref] = t;
+		_sequence[ref] = _inserted++;
+		insert(ref);
+	}
+
+	/**
+	 * @param t -- an indexed object (compared by reference)
+	 * @return true if the object was removed from the index
+	 */
+	public boolean remove(T t)
+	{
+		int ref = delete(_x.applyAsDouble(t), _y.applyAsDouble(t), r -> _entries[r] == t);
+		if (ref == 0) return false;
+
+		_entries[ref] = null;
+		if (_freeCount == _free.length) _free = Arrays.copyOf(_free, 2 * _freeCount);
+		_free[_freeCount++] = ref;
+		return true;
+	}
+
+	/**
+	 * @param coordinate -- a single coordinate
+	 * @return the (epsilon-sized) cell containing the coordinate; as for hashing points
+	 */
+	public static long cell(double coordinate)
+	{
+		return CellTable.cell(coordinate);
+	}
+}
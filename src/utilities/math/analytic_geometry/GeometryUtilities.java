@@ -13,8 +13,13 @@ public class GeometryUtilities
      */
     public static double distance(Point p1, Point p2)
     {
-        return Math.sqrt(Math.pow(p2.getX() - p1.getX(), 2) +
-                         Math.pow(p2.getY() - p1.getY(), 2));
+        return distance(p1.getX(), p1.getY(), p2.getX(), p2.getY());
+    }
+
+    public static double distance(double x1, double y1, double x2, double y2)
+    {
+        return Math.sqrt(Math.pow(x2 - x1, 2) +
+                         Math.pow(y2 - y1, 2));
     }
     
 	/*
@@ -23,13 +28,53 @@ public class GeometryUtilities
 	 * @param B -- a point
 	 * @return true if the three points are (1) collinear and (2) M is between A and B
 	 *                                     A-------------M---------B
+	 *         (within EPSILON: M is within EPSILON of line AB and its projection onto
+	 *         the line is within EPSILON of the segment AB)
 	 * Note: returns true if M is one of the endpoints
 	 */
 	public static boolean between(Point M, Point A, Point B)
 	{
-		return MathUtilities.doubleEquals(GeometryUtilities.distance(A, M) +
-                                          GeometryUtilities.distance(M, B),
-                                          GeometryUtilities.distance(A, B));
+		return between(M.getX(), M.getY(), A, B);
+	}
+
+	/*
+	 * Sqrt-free: with AB = B - A and AM = M - A, the distance of M from line AB is
+	 * |AB x AM| / |AB| and its projection onto the line is (AB . AM) / |AB|; both
+	 * are compared to EPSILON after multiplying through by |AB|.
+	 *
+	 * @param x, y -- the coordinates of a point M
+	 * @see between(Point, Point, Point)
+	 */
+	public static boolean between(double x, double y, Point A, Point B)
+	{
+		// e.g., the 'intersection' of parallel lines
+		if (!Double.isFinite(x) || !Double.isFinite(y)) return false;
+
+		double abx = B.getX() - A.getX();
+		double aby = B.getY() - A.getY();
+		double amx = x - A.getX();
+		double amy = y - A.getY();
+
+		double lengthSq = abx * abx + aby * aby;
+
+		// A degenerate segment is a point
+		if (lengthSq == 0) return MathUtilities.doubleEquals(x, A.getX()) && MathUtilities.doubleEquals(y, A.getY());
+
+		// (EPSILON * |AB|)^2
+		double toleranceSq = MathUtilities.EPSILON * MathUtilities.EPSILON * lengthSq;
+
+		// Collinear: within EPSILON of the line
+		double cross = abx * amy - aby * amx;
+		if (cross * cross >= toleranceSq) return false;
+
+		// Between: -EPSILON * |AB| < AB . AM < |AB|^2 + EPSILON * |AB|
+		double dot = abx * amx + aby * amy;
+		if (dot < 0 && dot * dot >= toleranceSq) return false;
+
+		double beyond = dot - lengthSq;
+		if (beyond > 0 && beyond * beyond >= toleranceSq) return false;
+
+		return true;
 	}
     
     /*
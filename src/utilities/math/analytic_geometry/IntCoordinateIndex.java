@@ -0,0 +1,69 @@
+package utilities.math.analytic_geometry;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * An epsilon-aware hash index of int ids located at (x, y) coordinates.
+ *
+ * As CoordinateIndex (the same CellTable), but the ids are the references
+ * themselves (there is no object per entry) and their coordinates are
+ * obtained through the given functions, e.g., from packed storage.
+ *
+ * Ids are expected to be indexed in increasing order; of several ids equal
+ * to the same coordinates, a lookup returns the smallest (that is, the one
+ * indexed first, as in CoordinateIndex).
+ */
+public class IntCoordinateIndex extends CellTable
+{
+	private final IntToDoubleFunction _x;
+	private final IntToDoubleFunction _y;
+
+	/**
+	 * @param x -- the x-coordinate of an id
+	 * @param y -- the y-coordinate of an id
+	 */
+	public IntCoordinateIndex(IntToDoubleFunction x, IntToDoubleFunction y)
+	{
+		_x = x;
+		_y = y;
+	}
+
+	// The reference of id is id + 1 (0 marks an empty slot)
+	@Override
+	protected double x(int ref) { return _x.applyAsDouble(ref - 1); }
+
+	@Override
+	protected double y(int ref) { return _y.applyAsDouble(ref - 1); }
+
+	@Override
+	protected boolean precedes(int ref, int other) { return ref < other; }
+
+	/**
+	 * @param x -- single coordinate
+	 * @param y -- single coordinate
+	 * @return the smallest indexed id equal to (x, y) within epsilon; -1 if none exists
+	 */
+	public int get(double x, double y) { return find(x, y, ref -> true) - 1; }
+
+	/**
+	 * @param x -- single coordinate
+	 * @param y -- single coordinate
+	 * @param filter -- a condition on the indexed ids
+	 * @return the smallest indexed id equal to (x, y) within epsilon that satisfies
+	 *         the condition; -1 if none exists
+	 */
+	public int get(double x, double y, IntPredicate filter)
+	{
+		return find(x, y, ref -> filter.test(ref - 1)) - 1;
+	}
+
+	/**
+	 * Index an id; no check for an existing equal id is made.
+	 * @param id -- a (non-negative) id
+	 */
+	public void put(int id)
+	{
+		insert(id + 1);
+	}
+}
@@ -0,0 +1,123 @@
+package utilities.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * FigureStorage outside the Java heap, in direct byte buffers.
+ *
+ * Records are kept in fixed-size blocks allocated as needed: growing never
+ * copies, no single buffer approaches the 2 GB limit of a ByteBuffer, and the
+ * garbage collector sees a handful of buffer objects however many points and
+ * pairs are stored. Memory is released when the storage is cleared or
+ * collected.
+ *
+ *     point record -- x (8 bytes), y (8 bytes), name code (4 bytes)
+ *     pair record -- first (4 bytes), second (4 bytes)
+ */
+public class DirectStorage implements FigureStorage
+{
+	// Records per block (a power of 2)
+	private static final int BLOCK_SHIFT = 12;
+	private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+	private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+	private static final int POINT_BYTES = 20;
+	private static final int PAIR_BYTES = 8;
+
+	private ByteBuffer[] _pointBlocks;
+	private int _pointCount;
+
+	private ByteBuffer[] _pairBlocks;
+	private int _pairCount;
+
+	public DirectStorage()
+	{
+		clear();
+	}
+
+	/*
+	 * @return @blocks, grown if need be, with a block allocated for record @count
+	 */
+	private static ByteBuffer[] ensure(ByteBuffer[] blocks, int count, int recordBytes)
+	{
+		int block = count >>> BLOCK_SHIFT;
+		if (block < blocks.length && blocks[block] != null) return blocks;
+
+		if (block >= blocks.length) blocks = Arrays.copyOf(blocks, Math.max(4, 2 * blocks.length));
+
+		blocks[block] = ByteBuffer.allocateDirect(BLOCK_SIZE * recordBytes).order(ByteOrder.nativeOrder());
+		return blocks;
+	}
+
+	//
+	// The block holding a record and the offset of the record in it
+	//
+	private ByteBuffer point(int point) { return _pointBlocks[point >>> BLOCK_SHIFT]; }
+	private static int pointOffset(int point) { return (point & BLOCK_MASK) * POINT_BYTES; }
+
+	private ByteBuffer pair(int pair) { return _pairBlocks[pair >>> BLOCK_SHIFT]; }
+	private static int pairOffset(int pair) { return (pair & BLOCK_MASK) * PAIR_BYTES; }
+
+	@Override
+	public int pointCount() { return _pointCount; }
+
+	@Override
+	public int addPoint(double x, double y, int name)
+	{
+		_pointBlocks = ensure(_pointBlocks, _pointCount, POINT_BYTES);
+
+		ByteBuffer block = point(_pointCount);
+		int offset = pointOffset(_pointCount);
+		block.putDouble(offset, x);
+		block.putDouble(offset + 8, y);
+		block.putInt(offset + 16, name);
+
+		return _pointCount++;
+	}
+
+	@Override
+	public double x(int point) { return point(point).getDouble(pointOffset(point)); }
+
+	@Override
+	public double y(int point) { return point(point).getDouble(pointOffset(point) + 8); }
+
+	@Override
+	public int name(int point) { return point(point).getInt(pointOffset(point) + 16); }
+
+	@Override
+	public void setName(int point, int name) { point(point).putInt(pointOffset(point) + 16, name); }
+
+	@Override
+	public int pairCount() { return _pairCount; }
+
+	@Override
+	public int addPair(int first, int second)
+	{
+		_pairBlocks = ensure(_pairBlocks, _pairCount, PAIR_BYTES);
+
+		ByteBuffer block = pair(_pairCount);
+		int offset = pairOffset(_pairCount);
+		block.putInt(offset, first);
+		block.putInt(offset + 4, second);
+
+		return _pairCount++;
+	}
+
+	@Override
+	public int first(int pair) { return pair(pair).getInt(pairOffset(pair)); }
+
+	@Override
+	public int second(int pair) { return pair(pair).getInt(pairOffset(pair) + 4); }
+
+	@Override
+	public void clear()
+	{
+		_pointBlocks = new ByteBuffer[0];
+		_pointCount = 0;
+
+		_pairBlocks = new ByteBuffer[0];
+		_pairCount = 0;
+	}
+}
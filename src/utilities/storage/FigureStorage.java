@@ -0,0 +1,41 @@
+package utilities.storage;
+
+/**
+ * Packed storage of the points and segments of a figure, as fixed-size records:
+ *     points -- (x, y, name code) identified by int ids in order of addition
+ *     pairs -- (first, second) ints, e.g., the endpoint ids of a segment,
+ *              identified by int ids in order of addition
+ *
+ * Name codes are opaque to the storage (see geometry_objects.points.PointNames).
+ * Implementations differ only in where the records live: HeapStorage keeps
+ * them in primitive arrays, DirectStorage outside the Java heap.
+ */
+public interface FigureStorage
+{
+	int pointCount();
+
+	/**
+	 * @return the id of the new point
+	 */
+	int addPoint(double x, double y, int name);
+
+	double x(int point);
+	double y(int point);
+	int name(int point);
+	void setName(int point, int name);
+
+	int pairCount();
+
+	/**
+	 * @return the id of the new pair
+	 */
+	int addPair(int first, int second);
+
+	int first(int pair);
+	int second(int pair);
+
+	/**
+	 * Remove all points and pairs.
+	 */
+	void clear();
+}
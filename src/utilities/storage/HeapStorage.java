@@ -0,0 +1,92 @@
+package utilities.storage;
+
+import java.util.Arrays;
+
+/**
+ * FigureStorage in (growing) primitive arrays on the Java heap.
+ */
+public class HeapStorage implements FigureStorage
+{
+	private static final int INITIAL_CAPACITY = 16;
+
+	private double[] _xs;
+	private double[] _ys;
+	private int[] _names;
+	private int _pointCount;
+
+	private int[] _firsts;
+	private int[] _seconds;
+	private int _pairCount;
+
+	public HeapStorage()
+	{
+		clear();
+	}
+
+	@Override
+	public int pointCount() { return _pointCount; }
+
+	@Override
+	public int addPoint(double x, double y, int name)
+	{
+		if (_pointCount == _xs.length)
+		{
+			_xs = Arrays.copyOf(_xs, 2 * _pointCount);
+			_ys = Arrays.copyOf(_ys, 2 * _pointCount);
+			_names = Arrays.copyOf(_names, 2 * _pointCount);
+		}
+
+		_xs[_pointCount] = x;
+		_ys[_pointCount] = y;
+		_names[_pointCount] = name;
+		return _pointCount++;
+	}
+
+	@Override
+	public double x(int point) { return _xs[point]; }
+
+	@Override
+	public double y(int point) { return _ys[point]; }
+
+	@Override
+	public int name(int point) { return _names[point]; }
+
+	@Override
+	public void setName(int point, int name) { _names[point] = name; }
+
+	@Override
+	public int pairCount() { return _pairCount; }
+
+	@Override
+	public int addPair(int first, int second)
+	{
+		if (_pairCount == _firsts.length)
+		{
+			_firsts = Arrays.copyOf(_firsts, 2 * _pairCount);
+			_seconds = Arrays.copyOf(_seconds, 2 * _pairCount);
+		}
+
+		_firsts[_pairCount] = first;
+		_seconds[_pairCount] = second;
+		return _pairCount++;
+	}
+
+	@Override
+	public int first(int pair) { return _firsts[pair]; }
+
+	@Override
+	public int second(int pair) { return _seconds[pair]; }
+
+	@Override
+	public void clear()
+	{
+		_xs = new double[INITIAL_CAPACITY];
+		_ys = new double[INITIAL_CAPACITY];
+		_names = new int[INITIAL_CAPACITY];
+		_pointCount = 0;
+
+		_firsts = new int[INITIAL_CAPACITY];
+		_seconds = new int[INITIAL_CAPACITY];
+		_pairCount = 0;
+	}
+}
@@ -2,6 +2,7 @@ package geometry_objects;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -171,4 +172,85 @@ public class SegmentTest {
 		assertTrue(ptSet.containsAll(listCon));
 		assertFalse(ptSet.contains(A));
 	}
-}
\ No newline at end of file
+
+	@Test
+	void segmentIntersectionTest() {
+		//
+		//  D     C
+		//   \   /
+		//    \ /
+		//     X
+		//    / \
+		//   A   B----E
+		//
+		Point A = new Point("A", 0, 0);
+		Point B = new Point("B", 4, 0);
+		Point C = new Point("C", 4, 4);
+		Point D = new Point("D", 0, 4);
+		Point E = new Point("E", 8, 0);
+
+		assertEquals(new Point(2, 2), new Segment(A, C).segmentIntersection(new Segment(B, D)));
+
+		// Endpoints, parallel and collinear segments are not crossings
+		assertNull(new Segment(A, B).segmentIntersection(new Segment(B, C)));
+		assertNull(new Segment(A, B).segmentIntersection(new Segment(D, C)));
+		assertNull(new Segment(A, E).segmentIntersection(new Segment(B, E)));
+		assertNull(new Segment(A, D).segmentIntersection(new Segment(new Point(0.0000001, 1), new Point(0, 5))));
+
+		// Lines cross beyond the segments
+		assertNull(new Segment(A, B).segmentIntersection(new Segment(new Point(1, 1), new Point(2, 2))));
+
+		// Vertical with slanted and horizontal
+		assertEquals(new Point(2, 1), new Segment(new Point(2, 0), new Point(2, 4)).segmentIntersection(new Segment(new Point(0, 0), new Point(4, 2))));
+		assertEquals(new Point(2, 1), new Segment(new Point(0, 1), new Point(4, 1)).segmentIntersection(new Segment(new Point(2, 0), new Point(2, 4))));
+	}
+
+	@Test
+	void cachedGeometryTest() {
+		Segment AB = new Segment(new Point(3, 4), new Point(0, 0));
+		assertEquals(5, AB.length(), 0.000001);
+		assertEquals(4.0 / 3, AB.slope(), 0.000001);
+		assertEquals(0, AB.minX(), 0.000001);
+		assertEquals(4, AB.maxY(), 0.000001);
+
+		// Normalized: the same line, whichever way it is traversed
+		Segment BA = new Segment(new Point(0, 0), new Point(3, 4));
+		assertEquals(AB.lineA(), BA.lineA(), 0.000001);
+		assertEquals(AB.lineB(), BA.lineB(), 0.000001);
+		assertEquals(AB.lineC(), BA.lineC(), 0.000001);
+		assertEquals(1, AB.lineA() * AB.lineA() + AB.lineB() * AB.lineB(), 0.000001);
+		assertEquals(1, AB.lineDistance(0.8, -0.6), 0.000001);
+
+		Segment vertical = new Segment(new Point(2, 0), new Point(2, 4));
+		assertTrue(vertical.isVertical());
+		assertFalse(vertical.isHorizontal());
+		assertEquals(Double.POSITIVE_INFINITY, vertical.slope());
+
+		// Parallel is not collinear
+		assertTrue(AB.isCollinearWith(new Segment(new Point(6, 8), new Point(9, 12))));
+		assertFalse(AB.isCollinearWith(new Segment(new Point(1, 0), new Point(4, 4))));
+	}
+
+	@Test
+	void canonicalOrderTest() {
+		Point a = new Point("A", 3, 4);
+		Point b = new Point("B", 0, 0);
+
+		// Endpoints are ordered lexicographically
+		Segment AB = new Segment(a, b);
+		assertEquals(b, AB.getPoint1());
+		assertEquals(a, AB.getPoint2());
+
+		Segment BA = new Segment(b, a);
+		assertEquals(AB, BA);
+		assertEquals(AB.hashCode(), BA.hashCode());
+
+		assertFalse(AB.equals(new Segment(a, new Point(0, 1))));
+
+		// Nearly vertical: equal segments may order their endpoints differently
+		Segment CD = new Segment(new Point(0, 0), new Point(0.0000001, 5));
+		Segment DC = new Segment(new Point(0.0000002, 0), new Point(0.0000001, 5));
+		assertEquals(CD, DC);
+		assertEquals(DC, CD);
+	}
+}
@@ -0,0 +1,103 @@
+package geometry_objects.points;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import utilities.storage.DirectStorage;
+
+public class PointDatabaseTest
+{
+	@Test
+	void getPointByNameTest()
+	{
+		PointDatabase points = new PointDatabase(Arrays.asList(new Point("A", 0, 0),
+				                                               new Point("B", 1, 0),
+				                                               new Point(2, 2)));
+
+		assertEquals(new Point(0, 0), points.getPoint("A"));
+		assertEquals("B", points.getPoint("B").getName());
+		assertNull(points.getPoint("C"));
+		assertNull(points.getPoint((String)null));
+
+		// The first name given for a point is kept
+		points.put("Z", 0, 0);
+		assertNull(points.getPoint("Z"));
+		assertEquals("A", points.getName(0, 0));
+
+		// A name overwrites an unnamed point
+		assertNull(points.getName(new Point(5, 5)));
+		assertEquals(Point.ANONYMOUS, points.getName(2, 2));
+		points.put("C", 2, 2);
+		assertSame(points.getPoint(2, 2), points.getPoint("C"));
+		assertEquals("C", points.getName(2, 2));
+		assertEquals(3, points.size());
+
+		// Generated names are indexed too
+		points.put(Point.ANONYMOUS, 3, 3);
+		String generated = points.getName(3, 3);
+		assertEquals("*_A", generated);
+		assertSame(points.getPoint(3, 3), points.getPoint(generated));
+	}
+
+	@Test
+	void packedGetPointByNameTest()
+	{
+		PointDatabase points = new PointDatabase(Arrays.asList(new Point("A", 0, 0),
+				                                               new Point("B", 1, 0),
+				                                               new Point(2, 2)),
+				                                 new DirectStorage());
+
+		assertEquals(new Point(0, 0), points.getPoint("A"));
+		assertEquals("B", points.getPoint("B").getName());
+		assertNull(points.getPoint("C"));
+		assertNull(points.getPoint((String)null));
+		assertTrue(points.getPoints().contains(new Point(1, 0.0000001)));
+
+		// The first name given for a point is kept
+		points.put("Z", 0, 0);
+		assertNull(points.getPoint("Z"));
+		assertEquals("A", points.getName(0, 0));
+
+		// A name overwrites an unnamed point (in place)
+		assertEquals(Point.ANONYMOUS, points.getName(2, 2));
+		points.put("C", 2, 2);
+		assertEquals("C", points.getPoint(2, 2).getName());
+		assertEquals(3, points.size());
+		assertEquals(Arrays.asList("A", "B", "C"), points.getPoints().stream().map(Point::getName).toList());
+
+		// Generated names are indexed too
+		points.put(Point.ANONYMOUS, 3, 3);
+		assertEquals("*_A", points.getName(3, 3));
+		assertEquals(new Point(3, 3), points.getPoint("*_A"));
+	}
+
+	@Test
+	void generatedNamesTest()
+	{
+		assertEquals("*_A", PointNames.generated(0));
+		assertEquals("*_Z", PointNames.generated(25));
+		assertEquals("*_AA", PointNames.generated(26));
+		assertEquals("*_BB", PointNames.generated(27));
+		assertEquals("*_AAA", PointNames.generated(52));
+
+		for (int i = 0; i < 100; i++) assertEquals(i, PointNames.generatedIndex(PointNames.generated(i)));
+		assertEquals(-1, PointNames.generatedIndex("*_AB"));
+		assertEquals(-1, PointNames.generatedIndex("A"));
+		assertEquals(-1, PointNames.generatedIndex("*_"));
+
+		PointNames names = new PointNames();
+		assertEquals(PointNames.UNNAMED, names.encode(Point.ANONYMOUS));
+		assertEquals(27, names.encode("*_BB"));
+		int a = names.encode("A");
+		assertEquals(a, names.encode("A"));
+		assertEquals("A", names.decode(a));
+		assertEquals("*_BB", names.decode(27));
+		assertSame(Point.ANONYMOUS, names.decode(PointNames.UNNAMED));
+	}
+}
@@ -0,0 +1,32 @@
+package geometry_objects.points;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import utilities.math.MathUtilities;
+
+public class PointTest
+{
+	@Test
+	void hashCodeTest()
+	{
+		// Round-off near an integer coordinate does not change the hash
+		assertEquals(new Point(5, 5).hashCode(), new Point(4.999999999999998, 5.000000000000002).hashCode());
+		assertEquals(new Point(0.1 + 0.2, 0).hashCode(), new Point(0.3, 0).hashCode());
+
+		Set<Point> points = new HashSet<Point>();
+		points.add(new Point("A", 1.0 / 3, 2.0 / 3));
+		assertTrue(points.contains(new Point(1 - 2.0 / 3, 2 * (1.0 / 3))));
+
+		// Equal points are in the same or neighbouring cells
+		double x = 7.0000004999;
+		double y = x + 0.0000009;
+		assertTrue(new Point(x, 0).equals(new Point(y, 0)));
+		assertTrue(Math.abs(MathUtilities.quantize(x) - MathUtilities.quantize(y)) <= 1);
+	}
+}
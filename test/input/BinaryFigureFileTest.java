@@ -0,0 +1,109 @@
+package input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+import geometry_objects.points.PointDatabase;
+import input.exception.ParseException;
+import utilities.storage.DirectStorage;
+
+public class BinaryFigureFileTest
+{
+	private static void assertSameGeometry(Map.Entry<PointDatabase, Set<Segment>> expected, Map.Entry<PointDatabase, Set<Segment>> actual)
+	{
+		assertEquals(expected.getKey().getPoints(), actual.getKey().getPoints());
+		for (Point p : expected.getKey().getPoints())
+		{
+			assertEquals(p.getName(), actual.getKey().getName(p));
+		}
+		assertEquals(expected.getValue(), actual.getValue());
+	}
+
+	@Test
+	void figureRoundTripTest() throws IOException
+	{
+		String file = "fully_connected_irregular_polygon.json";
+		Path binary = Files.createTempFile("figure", ".bin");
+		try
+		{
+			BinaryFigureFile.write(InputFacade.extractFigure(file), binary);
+
+			Map.Entry<PointDatabase, Set<Segment>> expected = InputFacade.toGeometryRepresentation(file);
+			assertSameGeometry(expected, BinaryFigureFile.read(binary));
+			assertSameGeometry(expected, InputFacade.binaryToGeometryRepresentation(binary.toString()));
+			assertSameGeometry(expected, BinaryFigureFile.read(binary, new DirectStorage()));
+			assertEquals(10, BinaryFigureFile.read(binary).getValue().size());
+		}
+		finally { Files.delete(binary); }
+	}
+
+	@Test
+	void geometryRoundTripTest() throws IOException
+	{
+		Point a = new Point("A", 0.1, -2.5e-7);
+		Point b = new Point("\u00dfB", 1e20, 3);
+		Point c = new Point(-4, 1.0 / 3);
+
+		PointDatabase points = new PointDatabase(Arrays.asList(a, b, c));
+		Set<Segment> segments = new HashSet<Segment>(Arrays.asList(new Segment(a, b), new Segment(b, c)));
+
+		Path binary = Files.createTempFile("figure", ".bin");
+		try
+		{
+			BinaryFigureFile.write(points, segments, binary);
+
+			Map.Entry<PointDatabase, Set<Segment>> read = BinaryFigureFile.read(binary);
+			assertSameGeometry(Map.entry(points, segments), read);
+			assertTrue(read.getKey().getPoint(-4, 1.0 / 3).isUnnamed());
+			assertEquals(1.0 / 3, read.getKey().getPoint(-4, 1.0 / 3).getY());
+
+			// Segments must join points of the figure
+			Set<Segment> stray = new HashSet<Segment>(Arrays.asList(new Segment(a, new Point(9, 9))));
+			assertThrows(IllegalArgumentException.class, () -> BinaryFigureFile.write(points, stray, binary));
+		}
+		finally { Files.delete(binary); }
+	}
+
+	@Test
+	void malformedTest() throws IOException
+	{
+		Path binary = Files.createTempFile("figure", ".bin");
+		try
+		{
+			Files.write(binary, new byte[] { 'F', 'I', 'G', 'X', 1, 0, 0, 0 });
+			assertThrows(ParseException.class, () -> BinaryFigureFile.read(binary));
+
+			// a truncated file
+			BinaryFigureFile.write(new PointDatabase(Arrays.asList(new Point("A", 0, 0), new Point("B", 1, 1))), Set.of(), binary);
+			byte[] bytes = Files.readAllBytes(binary);
+			Files.write(binary, Arrays.copyOf(bytes, bytes.length - 1));
+			assertThrows(ParseException.class, () -> BinaryFigureFile.read(binary));
+
+			// counts whose section sizes overflow an int
+			ByteBuffer header = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+			header.put(new byte[] { 'F', 'I', 'G', 'B' }).putInt(BinaryFigureFile.VERSION).putInt(0x40000000).putInt(0).putInt(0);
+			Files.write(binary, header.array());
+			assertThrows(ParseException.class, () -> BinaryFigureFile.read(binary));
+
+			header.putInt(8, -1);
+			Files.write(binary, header.array());
+			assertThrows(ParseException.class, () -> BinaryFigureFile.read(binary));
+		}
+		finally { Files.delete(binary); }
+	}
+}
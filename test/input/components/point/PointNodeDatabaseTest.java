@@ -0,0 +1,72 @@
+package input.components.point;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PointNodeDatabaseTest
+{
+	@Test
+	void coordinateLookupTest()
+	{
+		PointNode a = new PointNode("A", 0, 0);
+		PointNode b = new PointNode("B", 1, 0);
+		PointNodeDatabase points = new PointNodeDatabase(Arrays.asList(a, b, new PointNode(2, 2)));
+
+		assertTrue(points.contains(1, 0.0000001));
+		assertFalse(points.contains(1, 0.1));
+
+		// The stored nodes are returned (within epsilon)
+		assertSame(b, points.getPoint(1, 0.0000001));
+		assertSame(a, points.getPoint(new PointNode(0.0000001, 0)));
+		assertEquals("B", points.getName(1, 0));
+		assertEquals(PointNode.ANONYMOUS, points.getName(2, 2));
+
+		// Nothing stored: an unnamed node
+		assertEquals(PointNode.ANONYMOUS, points.getName(5, 5));
+		assertEquals(new PointNode(5, 5), points.getPoint(5, 5));
+		PointNode c = new PointNode("C", 5, 5);
+		assertSame(c, points.getPoint(c));
+
+		// The first point put at coordinates is kept
+		points.put(new PointNode("Z", 0, 0));
+		assertSame(a, points.getPoint(0, 0));
+		assertEquals(3, points.getSize());
+	}
+
+	@Test
+	void cellBoundaryTest()
+	{
+		// Equal (within epsilon) nodes on either side of a cell boundary
+		PointNode a = new PointNode("A", 0.4e-6, 0);
+		PointNode b = new PointNode("B", 1.2e-6, 0);
+		PointNodeDatabase points = new PointNodeDatabase(Arrays.asList(a, b));
+
+		assertEquals(1, points.getSize());
+		assertTrue(points.contains(b));
+		assertSame(a, points.getPoint(b));
+		assertEquals("A", points.getName(1.2e-6, 0));
+	}
+
+	@Test
+	void manyPointsTest()
+	{
+		List<PointNode> list = new ArrayList<PointNode>();
+		for (int i = 0; i < 100000; i++) list.add(new PointNode("P" + i, i % 317, i / 317));
+
+		PointNodeDatabase points = new PointNodeDatabase(list);
+
+		for (PointNode p : list)
+		{
+			assertSame(p, points.getPoint(p.getX(), p.getY()));
+			assertEquals(p.getName(), points.getName(p.getX(), p.getY()));
+		}
+	}
+}
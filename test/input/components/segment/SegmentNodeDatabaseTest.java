@@ -0,0 +1,115 @@
+package input.components.segment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import input.components.point.PointNode;
+
+public class SegmentNodeDatabaseTest
+{
+	@Test
+	void hashCodeTest()
+	{
+		PointNode a = new PointNode("A", 0, 0);
+		PointNode b = new PointNode("B", 1, 0);
+
+		assertEquals(new SegmentNode(a, b), new SegmentNode(new PointNode(0, 0), new PointNode(1, 0.0000001)));
+		assertEquals(new SegmentNode(a, b).hashCode(), new SegmentNode(new PointNode(0, 0), new PointNode(1, 0.0000001)).hashCode());
+		assertFalse(new SegmentNode(a, b).equals(new SegmentNode(b, a)));
+	}
+
+	/**
+	 * A fan of n points around a center, each joined to the center and to the next point
+	 */
+	@Test
+	void uniqueSegmentListTest()
+	{
+		int n = 20000;
+		SegmentNodeDatabase segments = new SegmentNodeDatabase();
+
+		PointNode center = new PointNode("O", 0, 0);
+		PointNode[] fan = new PointNode[n];
+		for (int i = 0; i < n; i++) fan[i] = new PointNode("P" + i, i + 1, i % 7);
+
+		for (int i = 0; i < n; i++)
+		{
+			segments.addUndirectedEdge(center, fan[i]);
+			if (i > 0) segments.addUndirectedEdge(fan[i - 1], fan[i]);
+		}
+
+		List<SegmentNode> unique = segments.asUniqueSegmentList();
+
+		assertEquals(2 * n - 1, unique.size());
+		assertEquals(segments.numUndirectedEdges(), unique.size());
+
+		// each edge in exactly one direction
+		Set<SegmentNode> listed = new HashSet<SegmentNode>(unique);
+		assertEquals(unique.size(), listed.size());
+		for (SegmentNode s : segments.asSegmentList())
+		{
+			assertTrue(listed.contains(s) != listed.contains(new SegmentNode(s.getPoint2(), s.getPoint1())));
+		}
+	}
+
+	/**
+	 *    A-----B
+	 *    |   /
+	 *    |  /
+	 *    C-    and D listing A (one direction only)
+	 */
+	@Test
+	void freezeTest()
+	{
+		PointNode a = new PointNode("A", 0, 1);
+		PointNode b = new PointNode("B", 1, 1);
+		PointNode c = new PointNode("C", 0, 0);
+		PointNode d = new PointNode("D", 5, 5);
+
+		SegmentNodeDatabase segments = new SegmentNodeDatabase();
+		segments.addUndirectedEdge(a, b);
+		segments.addUndirectedEdge(a, c);
+		segments.addUndirectedEdge(b, c);
+		segments.addAdjacencyList(d, Arrays.asList(a));
+
+		Map<PointNode, Set<PointNode>> before = new HashMap<PointNode, Set<PointNode>>();
+		segments.get_adjLists().forEach((key, list) -> before.put(key, new HashSet<PointNode>(list)));
+		int edges = segments.numUndirectedEdges();
+		List<SegmentNode> unique = segments.asUniqueSegmentList();
+
+		segments.freeze();
+		assertTrue(segments.isFrozen());
+
+		assertEquals(3, edges);
+		assertEquals(edges, segments.numUndirectedEdges());
+		assertEquals(before, segments.get_adjLists());
+		assertEquals(segments.get_adjLists(), before);
+		assertEquals(new HashSet<PointNode>(Arrays.asList(b, c)), segments.get_adjLists().get(new PointNode(0, 1)));
+		assertNull(segments.get_adjLists().get(new PointNode(9, 9)));
+		assertTrue(segments.get_adjLists().get(d).contains(a));
+		assertFalse(segments.get_adjLists().get(a).contains(d));
+		assertEquals(7, segments.asSegmentList().size());
+
+		// the same edges (in either direction), each once
+		List<SegmentNode> frozen = segments.asUniqueSegmentList();
+		assertEquals(unique.size(), frozen.size());
+		for (SegmentNode s : unique)
+		{
+			assertTrue(frozen.contains(s) || frozen.contains(new SegmentNode(s.getPoint2(), s.getPoint1())));
+		}
+
+		assertThrows(UnsupportedOperationException.class, () -> segments.addUndirectedEdge(c, d));
+		assertThrows(UnsupportedOperationException.class, () -> segments.get_adjLists().get(a).add(d));
+	}
+}
@@ -0,0 +1,106 @@
+package input.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import input.builder.DefaultBuilder;
+import input.builder.GeometryBuilder;
+import input.components.FigureNode;
+import input.components.point.PointNode;
+import input.exception.ParseException;
+import utilities.io.FileUtilities;
+
+public class JSONParserTest
+{
+	@Test
+	void streamingParseTest()
+	{
+		String file = "fully_connected_irregular_polygon.json";
+
+		FigureNode expected = (FigureNode)new JSONParser(new GeometryBuilder()).parse(FileUtilities.readFileFilterComments(file));
+		FigureNode actual = (FigureNode)new JSONParser(new GeometryBuilder()).parse(new StringReader(FileUtilities.readFile(file)));
+
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getPointsDatabase().getPoints(), actual.getPointsDatabase().getPoints());
+		assertEquals(expected.getSegments().get_adjLists(), actual.getSegments().get_adjLists());
+		assertEquals(10, actual.getSegments().numUndirectedEdges());
+	}
+
+	@Test
+	void streamingLayoutTest()
+	{
+		// Comments anywhere, members in any order, unknown members skipped
+		String json = "// a triangle\n" +
+		              "{ \"Version\" : [1, {\"a\" : null}], \"Figure\" : // the figure\n" +
+		              "  { \"Segments\" : [ { \"A\" : [\"B\", \"C\"] }, { \"B\" : [\"C\"] } ],\n" +
+		              "    \"Points\" : [ { \"name\" : \"A\", \"x\" : 0, \"y\" : 0 },\n" +
+		              "                 { \"y\" : -1.5e1, \"name\" : \"B\", \"x\" : 1.5, \"color\" : \"red\" },\n" +
+		              "                 { \"name\" : \"C\", \"x\" : 2, \"y\" : 2 } ],\n" +
+		              "    \"Description\" : \"A \\\"triangle\\\" // not a comment\" } }";
+
+		FigureNode figure = (FigureNode)new JSONParser(new GeometryBuilder()).parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals("A \"triangle\" // not a comment", figure.getDescription());
+		assertEquals(3, figure.getPointsDatabase().getSize());
+		assertTrue(figure.getPointsDatabase().contains(new PointNode("B", 1.5, -15)));
+		assertEquals(3, figure.getSegments().numUndirectedEdges());
+	}
+
+	@Test
+	void streamingErrorTest()
+	{
+		JSONParser parser = new JSONParser(new GeometryBuilder());
+
+		assertThrows(ParseException.class, () -> parser.parse(new StringReader("{ }")));
+		assertThrows(ParseException.class, () -> parser.parse(new StringReader("{ \"Other\" : 1 }")));
+		assertThrows(ParseException.class, () -> parser.parse(new StringReader("{ \"Figure\" : { \"Description\" : \"x\" } }")));
+		assertThrows(ParseException.class, () -> parser.parse(new StringReader("{ \"Figure\" : { \"Description\" : \"x\", }")));
+		assertThrows(ParseException.class, () -> parser.parse(new StringReader("{ \"Figure\" : { \"Description\" : \"x\"")));
+
+		// Nothing but comments may follow the figure
+		String figure = "{ \"Figure\" : { \"Description\" : \"x\", \"Points\" : [], \"Segments\" : [] } }";
+		assertThrows(ParseException.class, () -> parser.parse(new StringReader(figure + " garbage")));
+		assertThrows(ParseException.class, () -> parser.parse(new StringReader(figure + " {}")));
+		assertEquals("x", ((FigureNode)parser.parse(new StringReader(figure + " // end\n"))).getDescription());
+	}
+
+	@Test
+	void emptySegmentsFirstTest()
+	{
+		String json = "{ \"Figure\" : { \"Description\" : \"x\", \"Segments\" : [],\n" +
+		              "                \"Points\" : [ { \"name\" : \"A\", \"x\" : 0, \"y\" : 0 } ] } }";
+
+		FigureNode figure = (FigureNode)new JSONParser(new GeometryBuilder()).parse(new StringReader(json));
+
+		assertEquals(1, figure.getPointsDatabase().getSize());
+		assertEquals(0, figure.getSegments().numUndirectedEdges());
+		assertTrue(figure.getSegments().asUniqueSegmentList().isEmpty());
+	}
+
+	@Test
+	void pointNamesTest()
+	{
+		String figure = "{ \"Figure\" : { \"Description\" : \"x\"," +
+		                "  \"Points\" : [ { \"name\" : \"A\", \"x\" : 0, \"y\" : 0 }, { \"name\" : \"B\", \"x\" : 1, \"y\" : 0 } ]," +
+		                "  \"Segments\" : [ { \"A\" : [\"%s\"] } ] } }";
+
+		FigureNode node = (FigureNode)new JSONParser(new GeometryBuilder()).parse(String.format(figure, "B"));
+		assertEquals(new PointNode("A", 0, 0), node.getPointsDatabase().getPoint("A"));
+		assertEquals("B", node.getPointsDatabase().getPoint("B").getName());
+		assertEquals(null, node.getPointsDatabase().getPoint("C"));
+
+		// Unknown names fail (both parsers)
+		assertThrows(ParseException.class, () -> new JSONParser(new GeometryBuilder()).parse(String.format(figure, "C")));
+		assertThrows(ParseException.class, () -> new JSONParser(new GeometryBuilder()).parse(new StringReader(String.format(figure, "C"))));
+
+		// Nothing is built (or resolved) by the default builder
+		assertEquals(null, new JSONParser(new DefaultBuilder()).parse(new StringReader(String.format(figure, "C"))));
+	}
+}
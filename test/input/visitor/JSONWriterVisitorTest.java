@@ -0,0 +1,83 @@
+package input.visitor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import input.builder.GeometryBuilder;
+import input.components.FigureNode;
+import input.components.point.PointNode;
+import input.components.point.PointNodeDatabase;
+import input.components.segment.SegmentNodeDatabase;
+import input.parser.JSONParser;
+import utilities.io.FileUtilities;
+import utilities.io.StringUtilities;
+
+public class JSONWriterVisitorTest
+{
+	private static void assertSameFigure(FigureNode expected, FigureNode actual)
+	{
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getPointsDatabase().getPoints(), actual.getPointsDatabase().getPoints());
+		assertEquals(expected.getSegments().get_adjLists(), actual.getSegments().get_adjLists());
+	}
+
+	@Test
+	void roundTripTest()
+	{
+		FigureNode figure = (FigureNode)new JSONParser(new GeometryBuilder()).parse(FileUtilities.readFileFilterComments("fully_connected_irregular_polygon.json"));
+
+		StringWriter out = new StringWriter();
+		figure.accept(new JSONWriterVisitor(out), 0);
+
+		// both parsers read the text back
+		assertSameFigure(figure, (FigureNode)new JSONParser(new GeometryBuilder()).parse(new StringReader(out.toString())));
+		assertSameFigure(figure, (FigureNode)new JSONParser(new GeometryBuilder()).parse(out.toString()));
+	}
+
+	@Test
+	void escapedRoundTripTest()
+	{
+		PointNode a = new PointNode("A \"1\"", 0.1, -2.5e-7);
+		PointNode b = new PointNode("B\\2", 1e20, 3);
+		PointNode c = new PointNode("C", -4, 1.0 / 3);
+
+		SegmentNodeDatabase segments = new SegmentNodeDatabase();
+		segments.addUndirectedEdge(a, b);
+		segments.addUndirectedEdge(c, b);
+		segments.addUndirectedEdge(a, c);
+
+		FigureNode figure = new FigureNode("Line 1\nLine 2\t// not a comment", new PointNodeDatabase(Arrays.asList(a, b, c)), segments);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		figure.accept(new JSONWriterVisitor(out), 1);
+
+		FigureNode read = (FigureNode)new JSONParser(new GeometryBuilder()).parse(new ByteArrayInputStream(out.toByteArray()));
+		assertSameFigure(figure, read);
+		assertEquals(3, read.getSegments().numUndirectedEdges());
+		assertEquals(1.0 / 3, read.getPointsDatabase().getPoint("C").getY());
+
+		// the JSON object (DOM) path reads the same coordinates
+		FigureNode dom = (FigureNode)new JSONParser(new GeometryBuilder()).parse(out.toString(StandardCharsets.UTF_8));
+		assertSameFigure(figure, dom);
+		assertEquals(0.1, dom.getPointsDatabase().getPoint("A \"1\"").getX());
+		assertEquals(1.0 / 3, dom.getPointsDatabase().getPoint("C").getY());
+	}
+
+	@Test
+	void indentTest()
+	{
+		assertEquals("", StringUtilities.indent(0));
+		assertEquals("", StringUtilities.indent(-1));
+		assertEquals("        ", StringUtilities.indent(2));
+		assertEquals(4 * 20, StringUtilities.indent(20).length());
+		assertEquals(StringUtilities.indent(3), StringUtilities.indent(3));
+	}
+}
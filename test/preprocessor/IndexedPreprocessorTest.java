@@ -0,0 +1,42 @@
+package preprocessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.PointDatabase;
+import input.InputFacade;
+
+class IndexedPreprocessorTest
+{
+	@Test
+	void test_same_segments_as_preprocessor()
+	{
+		Map.Entry<PointDatabase, Set<Segment>> pair = InputFacade.toGeometryRepresentation("fully_connected_irregular_polygon.json");
+
+		Map<Segment, Segment> expected = new Preprocessor(pair.getKey(), pair.getValue()).getAllSegments();
+
+		IndexedPreprocessor ip = new IndexedPreprocessor(pair.getKey(), pair.getValue());
+		Map<Segment, Segment> actual = ip.getAllSegments();
+
+		// 6 given points (F is isolated) and 5 implicit points; 20 minimal and 15 non-minimal segments
+		assertEquals(11, ip.getStore().pointCount());
+		assertEquals(20, ip.getMinimalSegmentCount());
+		assertEquals(expected.size(), actual.size());
+
+		for (Segment s : expected.keySet())
+		{
+			assertTrue(actual.containsKey(s));
+			assertEquals(s, actual.get(s));
+		}
+		for (Segment s : actual.keySet())
+		{
+			assertTrue(expected.containsKey(s));
+		}
+	}
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -269,4 +270,133 @@ class PreprocessorTest
 		
 		
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testComputeImplicitBaseSegmentsFromIncidence()
+	{
+		//
+		//          D (3,0)
+		//		    |  
+		//   A -----|----- B(6,2)
+		//          |
+		//    E-----|------F(6,3)
+		//	        |
+		//    		C (3,5)
+		//
+		Point A = new Point("A", 0,2);
+		Point B = new Point("B", 6, 2);
+		Point C = new Point("C", 3, 5);
+		Point D = new Point("D",  3, 0);
+		Point E = new Point("E", 0, 3);
+		Point F = new Point("F", 6, 3);
+
+		PointDatabase ptdb = new PointDatabase(Arrays.asList(A, B, C, D, E, F));
+
+		Segment AB = new Segment(A, B);
+		Segment EF = new Segment(E, F);
+		Segment DC = new Segment(D, C);
+		Set<Segment> segSet = new HashSet<Segment>(Arrays.asList(AB, EF, DC));
+
+		Preprocessor pp = new Preprocessor(ptdb, segSet);
+
+		// The implicit points with the given segments through them
+		Map<Point, List<Segment>> incidence = ImplicitPointPreprocessor.computeIncidence(ptdb, new ArrayList<Segment>(segSet),
+				                                                                        ImplicitPointPreprocessor.Engine.GRID);
+		assertEquals(2, incidence.size());
+		assertEquals(2, incidence.get(new Point(3, 2)).size());
+		assertTrue(incidence.get(new Point(3, 2)).contains(DC));
+		assertTrue(incidence.get(new Point(3, 2)).contains(AB));
+
+		Set<Segment> impSeg = pp.computeImplicitBaseSegments(incidence);
+		assertEquals(pp.computeImplicitBaseSegments(incidence.keySet()), impSeg);
+		assertEquals(7, impSeg.size());
+		assertTrue(impSeg.contains(new Segment(new Point(3, 2), new Point(3, 3))));
+		assertTrue(impSeg.contains(new Segment(D, new Point(3, 2))));
+		assertTrue(impSeg.contains(new Segment(C, new Point(3, 3))));
+	}
+
+	@Test
+	void testAddAndRemoveSegment()
+	{
+		//          D (3,0)
+		//		    |  
+		//   A -----|----- B(6,2) ----- G(9,2)
+		//          |
+		//    E-----|------F(6,3)
+		//	        |
+		//    		C (3,5)
+		//
+		Point A = new Point("A", 0,2);
+		Point B = new Point("B", 6, 2);
+		Point C = new Point("C", 3, 5);
+		Point D = new Point("D",  3, 0);
+		Point E = new Point("E", 0, 3);
+		Point F = new Point("F", 6, 3);
+		Point G = new Point("G", 9, 2);
+
+		PointDatabase ptdb = new PointDatabase(Arrays.asList(A, B, C, D, E, F, G));
+
+		Segment AB = new Segment(A, B);
+		Segment EF = new Segment(E, F);
+		Segment DC = new Segment(D, C);
+		Segment BG = new Segment(B, G);
+
+		Preprocessor pp = new Preprocessor(ptdb, new HashSet<Segment>(Arrays.asList(AB, EF)));
+		Map<Segment, Segment> before = new HashMap<Segment, Segment>(pp.getAllSegments());
+		assertEquals(2, before.size());
+
+		// DC crosses both segments: two implicit points, seven minimal segments and
+		// the non-minimal segments along AB, EF and DC
+		pp.addSegment(DC);
+		Preprocessor full = new Preprocessor(ptdb, new HashSet<Segment>(Arrays.asList(AB, EF, DC)));
+		assertEquals(full.getAllSegments().keySet(), pp.getAllSegments().keySet());
+		assertEquals(new HashSet<Point>(full._implicitPoints), new HashSet<Point>(pp._implicitPoints));
+		assertEquals(7, pp._allMinimalSegments.size());
+		assertEquals(7 + 2 + 3, pp.getAllSegments().size());
+
+		// BG extends the chain A-*-B
+		pp.addSegment(BG);
+		full = new Preprocessor(ptdb, new HashSet<Segment>(Arrays.asList(AB, EF, DC, BG)));
+		assertEquals(full.getAllSegments().keySet(), pp.getAllSegments().keySet());
+		assertTrue(pp.getAllSegments().containsKey(new Segment(A, G)));
+		assertTrue(pp.getAllSegments().containsKey(new Segment(new Point(3, 2), G)));
+
+		// Adding a segment twice changes nothing
+		pp.addSegment(new Segment(G, B));
+		assertEquals(full.getAllSegments().keySet(), pp.getAllSegments().keySet());
+
+		// Removing the segments restores the original analysis
+		pp.removeSegment(DC);
+		pp.removeSegment(BG);
+		assertEquals(before.keySet(), pp.getAllSegments().keySet());
+		assertTrue(pp._implicitPoints.isEmpty());
+		assertTrue(pp._nonMinimalSegments.isEmpty());
+	}
+
+	@Test
+	void testLazySegmentDatabase()
+	{
+		Map.Entry<PointDatabase, Set<Segment>> pair = InputFacade.toGeometryRepresentation("fully_connected_irregular_polygon.json");
+
+		Map<Segment, Segment> expected = new Preprocessor(pair.getKey(), pair.getValue()).getAllSegments();
+		Preprocessor pp = new Preprocessor(pair.getKey(), pair.getValue(), true);
+		Map<Segment, Segment> lazy = pp.getAllSegments();
+
+		assertEquals(expected.size(), lazy.size());
+		assertEquals(expected.keySet(), new HashSet<Segment>(lazy.keySet()));
+		for (Segment s : expected.keySet()) assertEquals(s, lazy.get(s));
+
+		// Incremental changes update the chains of the (lazy) database
+		Segment given = pair.getValue().iterator().next();
+		Set<Segment> others = new HashSet<Segment>(pair.getValue());
+		others.remove(given);
+
+		pp.removeSegment(given);
+		assertEquals(new Preprocessor(pair.getKey(), others).getAllSegments().keySet(), new HashSet<Segment>(pp.getAllSegments().keySet()));
+		assertEquals(pp.getAllSegments().size(), pp.getAllSegments().keySet().size());
+
+		pp.addSegment(given);
+		assertEquals(expected.size(), pp.getAllSegments().size());
+		assertEquals(expected.keySet(), new HashSet<Segment>(pp.getAllSegments().keySet()));
+	}
+}
@@ -0,0 +1,76 @@
+package preprocessor.delegates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+public class CollinearChainPreprocessorTest
+{
+	/**
+	 *   A-----B-----C-----D-----E
+	 *         |
+	 *         F
+	 */
+	@Test
+	void chainTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 2, 0);
+		Point d = new Point("D", 3, 0);
+		Point e = new Point("E", 4, 0);
+		Point f = new Point("F", 1, -1);
+
+		// Out of order along the line
+		Set<Segment> minimal = new LinkedHashSet<Segment>(Arrays.asList(new Segment(c, d),
+				                                                        new Segment(b, a),
+				                                                        new Segment(b, f),
+				                                                        new Segment(e, d),
+				                                                        new Segment(b, c)));
+
+		Set<Segment> nonMinimal = CollinearChainPreprocessor.compute(minimal);
+
+		// 5 points on the chain: 5 choose 2 segments, less the 4 minimal ones
+		assertEquals(6, nonMinimal.size());
+		for (Segment s : Arrays.asList(new Segment(a, c), new Segment(a, d), new Segment(a, e),
+				                       new Segment(b, d), new Segment(b, e), new Segment(c, e)))
+		{
+			assertTrue(nonMinimal.contains(s));
+		}
+	}
+
+	/**
+	 *   A-----B-----C
+	 *   A-----------C
+	 *
+	 * Overlapping collinear segments (B is not a point of AC) do not form a chain.
+	 */
+	@Test
+	void overlapTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 0, 1);
+		Point c = new Point("C", 0, 2);
+		Point d = new Point("D", 0, 3);
+
+		Set<Segment> minimal = new LinkedHashSet<Segment>(Arrays.asList(new Segment(a, b),
+				                                                        new Segment(b, c),
+				                                                        new Segment(a, c),
+				                                                        new Segment(c, d)));
+
+		Set<Segment> nonMinimal = CollinearChainPreprocessor.compute(minimal);
+
+		assertEquals(3, nonMinimal.size());
+		assertTrue(nonMinimal.contains(new Segment(a, c)));
+		assertTrue(nonMinimal.contains(new Segment(b, d)));
+		assertTrue(nonMinimal.contains(new Segment(a, d)));
+	}
+}
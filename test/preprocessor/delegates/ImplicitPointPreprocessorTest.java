@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -14,7 +15,9 @@ import org.junit.jupiter.api.Test;
 import geometry_objects.Segment;
 import geometry_objects.points.Point;
 import geometry_objects.points.PointDatabase;
+import input.InputFacade;
 import preprocessor.delegates.ImplicitPointPreprocessor;
+import preprocessor.delegates.ImplicitPointPreprocessor.Engine;
 
 public class ImplicitPointPreprocessorTest 
 {
@@ -78,4 +81,112 @@ public class ImplicitPointPreprocessorTest
 		assertEquals(point, x);
 
 	}
+
+	/**
+	 * The sweep-line engine must report the same set of implicit points
+	 * as the brute-force engine (the order of the sets may differ).
+	 */
+	@Test
+	void SweepLineMatchesBruteForceTest()
+	{
+		//
+		// The fully connected irregular pentagon: 5 implied points
+		//
+		Map.Entry<PointDatabase, Set<Segment>> pair = InputFacade.toGeometryRepresentation("fully_connected_irregular_polygon.json");
+		List<Segment> segments = new ArrayList<Segment>(pair.getValue());
+
+		Set<Point> bruteForce = ImplicitPointPreprocessor.compute(pair.getKey(), segments, Engine.BRUTE_FORCE);
+		Set<Point> sweep = ImplicitPointPreprocessor.compute(pair.getKey(), segments, Engine.SWEEP_LINE);
+
+		assertEquals(5, sweep.size());
+		assertEquals(bruteForce, sweep);
+
+		//
+		// A 4 x 4 grid of horizontal and vertical segments with two diagonals:
+		//    16 grid crossings (the diagonals pass through 4 of them) and
+		//    the diagonals cross each other at (1.5, 1.5).
+		//
+		List<Point> points = new ArrayList<Point>();
+		segments = new ArrayList<Segment>();
+		for (int i = 0; i < 4; i++)
+		{
+			Point left = new Point("L" + i, -1, i);
+			Point right = new Point("R" + i, 4, i);
+			Point bottom = new Point("B" + i, i, -1);
+			Point top = new Point("T" + i, i, 4);
+			points.addAll(List.of(left, right, bottom, top));
+			segments.add(new Segment(left, right));
+			segments.add(new Segment(bottom, top));
+		}
+		segments.add(new Segment(new Point("X", 0, 0), new Point("Y", 3, 3)));
+		segments.add(new Segment(new Point("Z", 0, 3), new Point("W", 3, 0)));
+		PointDatabase database = new PointDatabase(points);
+
+		bruteForce = ImplicitPointPreprocessor.compute(database, segments, Engine.BRUTE_FORCE);
+		sweep = ImplicitPointPreprocessor.compute(database, segments, Engine.SWEEP_LINE);
+
+		assertEquals(17, sweep.size());
+		assertEquals(bruteForce, sweep);
+		assertTrue(sweep.contains(new Point(1.5, 1.5)));
+	}
+
+	/**
+	 * The parallel engine must report the same points in the same order
+	 * as the brute-force engine; the figure is large enough to be split
+	 * into several tasks.
+	 */
+	@Test
+	void ParallelMatchesBruteForceTest()
+	{
+		//
+		// 200 segments from the bottom edge to the top edge of a 200 x 100
+		// box; segment i runs from (i, 0) to ((7 * i) % 200, 100)
+		//
+		List<Point> points = new ArrayList<Point>();
+		List<Segment> segments = new ArrayList<Segment>();
+		for (int i = 0; i < 200; i++)
+		{
+			Point bottom = new Point("B" + i, i, 0);
+			Point top = new Point("T" + i, (7 * i) % 200, 100);
+			points.add(bottom);
+			points.add(top);
+			segments.add(new Segment(bottom, top));
+		}
+		PointDatabase database = new PointDatabase(points);
+
+		Set<Point> bruteForce = ImplicitPointPreprocessor.compute(database, segments, Engine.BRUTE_FORCE);
+		Set<Point> parallel = ImplicitPointPreprocessor.compute(database, segments, Engine.PARALLEL);
+
+		assertFalse(parallel.isEmpty());
+		assertEquals(new ArrayList<Point>(bruteForce), new ArrayList<Point>(parallel));
+	}
+
+	/**
+	 *            C
+	 *            |
+	 *   A-----E--+------B
+	 *            |
+	 *            D
+	 *
+	 * The crossing (1.2e-6, 0) equals the given point E (0.4e-6, 0) within epsilon
+	 * although the two lie in different cells; no engine reports it.
+	 */
+	@Test
+	void CellBoundaryTest()
+	{
+		Point a = new Point("A", -1, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 1.2e-6, 1);
+		Point d = new Point("D", 1.2e-6, -1);
+		Point e = new Point("E", 0.4e-6, 0);
+
+		PointDatabase database = new PointDatabase(List.of(a, b, c, d, e));
+		List<Segment> segments = List.of(new Segment(a, b), new Segment(c, d));
+
+		for (Engine engine : Engine.values())
+		{
+			assertTrue(ImplicitPointPreprocessor.compute(database, segments, engine).isEmpty());
+		}
+		assertEquals(null, ImplicitPointPreprocessor.implicitPoint(segments.get(0), segments.get(1), database));
+	}
 }
@@ -0,0 +1,137 @@
+package preprocessor.delegates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+public class LazySegmentDatabaseTest
+{
+	/**
+	 *   A-----B-----C-----D-----E
+	 *         |
+	 *         F
+	 */
+	@Test
+	void chainTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 2, 0);
+		Point d = new Point("D", 3, 0);
+		Point e = new Point("E", 4, 0);
+		Point f = new Point("F", 1, -1);
+
+		Set<Segment> minimal = new LinkedHashSet<Segment>(Arrays.asList(new Segment(c, d),
+				                                                        new Segment(b, a),
+				                                                        new Segment(b, f),
+				                                                        new Segment(e, d),
+				                                                        new Segment(b, c)));
+
+		Map<Segment, Segment> database = new LazySegmentDatabase(minimal);
+
+		// 5 minimal and 6 non-minimal segments
+		assertEquals(11, database.size());
+		assertEquals(11, new HashSet<Segment>(database.keySet()).size());
+		assertTrue(database.keySet().containsAll(minimal));
+		assertTrue(database.keySet().containsAll(CollinearChainPreprocessor.compute(minimal)));
+
+		// Lookups check the chain; the stored (named) points are returned
+		assertTrue(database.containsKey(new Segment(new Point(4, 0), new Point(1, 0))));
+		assertEquals("B", database.get(new Segment(new Point(4, 0), new Point(1, 0))).getPoint1().getName());
+		assertFalse(database.containsKey(new Segment(a, f)));
+		assertFalse(database.containsKey(new Segment(f, e)));
+		assertNull(database.get(new Segment(new Point(0.5, 0), e)));
+
+		Set<Segment> nonMinimal = ((LazySegmentDatabase)database).nonMinimalSegments();
+		assertEquals(CollinearChainPreprocessor.compute(minimal), new HashSet<Segment>(nonMinimal));
+		assertEquals(6, nonMinimal.size());
+		assertFalse(nonMinimal.contains(new Segment(b, c)));
+	}
+
+	/**
+	 *   A-----B-----C-----D
+	 *   A-----------C
+	 *
+	 * Overlapping collinear segments do not form a chain; their group is closed.
+	 */
+	@Test
+	void overlapTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 0, 1);
+		Point c = new Point("C", 0, 2);
+		Point d = new Point("D", 0, 3);
+
+		Set<Segment> minimal = new LinkedHashSet<Segment>(Arrays.asList(new Segment(a, b),
+				                                                        new Segment(b, c),
+				                                                        new Segment(a, c),
+				                                                        new Segment(c, d)));
+
+		LazySegmentDatabase database = new LazySegmentDatabase(minimal);
+
+		// AC is both minimal and non-minimal; it is reported once
+		assertEquals(6, database.size());
+		assertEquals(6, new HashSet<Segment>(database.keySet()).size());
+		assertTrue(database.containsKey(new Segment(b, d)));
+		assertTrue(database.containsKey(new Segment(a, d)));
+
+		assertEquals(3, database.nonMinimalSegments().size());
+		assertTrue(database.nonMinimalSegments().contains(new Segment(a, c)));
+	}
+
+	/**
+	 *   A-----B-----C     D-----E
+	 *
+	 * Groups are added and removed without indexing the other chains again.
+	 */
+	@Test
+	void groupTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 2, 0);
+		Point d = new Point("D", 3, 0);
+		Point e = new Point("E", 4, 0);
+
+		Segment ab = new Segment(a, b);
+		Segment bc = new Segment(b, c);
+		Segment cd = new Segment(c, d);
+		Segment de = new Segment(d, e);
+
+		LazySegmentDatabase database = new LazySegmentDatabase(new LinkedHashSet<Segment>());
+		Arrays.asList(ab, bc, de).forEach(s -> database.addMinimal(s));
+		LazySegmentDatabase.Group group = database.addGroup(Arrays.asList(ab, bc));
+		assertEquals(4, database.size());
+		assertFalse(database.containsKey(new Segment(a, e)));
+
+		// CD joins the chain A-B-C (and D-E, a single segment) into one
+		database.addMinimal(cd);
+		database.removeGroup(group);
+		group = database.addGroup(Arrays.asList(ab, bc, cd, de));
+		assertEquals(10, database.size());
+		assertTrue(database.containsKey(new Segment(a, e)));
+		assertEquals(CollinearChainPreprocessor.compute(Set.of(ab, bc, cd, de)), new HashSet<Segment>(database.nonMinimalSegments()));
+
+		// ... and leaves it again
+		database.removeGroup(group);
+		database.removeMinimal(cd);
+		database.addGroup(Arrays.asList(ab, bc));
+		assertEquals(4, database.size());
+		assertEquals(4, new HashSet<Segment>(database.keySet()).size());
+		assertTrue(database.containsKey(new Segment(a, c)));
+		assertFalse(database.containsKey(new Segment(b, d)));
+		assertEquals(Set.of(new Segment(a, c)), new HashSet<Segment>(database.nonMinimalSegments()));
+	}
+}
@@ -0,0 +1,98 @@
+package preprocessor.delegates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+public class SegmentGridTest
+{
+	/**
+	 *   D-----E            F
+	 *   |                  |
+	 *   |                  |
+	 *   A-----B-----C      G
+	 *
+	 * Queries return only segments whose bounding boxes overlap
+	 * (touching counts), in the order the segments were given.
+	 */
+	@Test
+	void QueryTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 2, 0);
+		Point d = new Point("D", 0, 1);
+		Point e = new Point("E", 1, 1);
+		Point f = new Point("F", 10, 1);
+		Point g = new Point("G", 10, 0);
+
+		Segment ab = new Segment(a, b);
+		Segment bc = new Segment(b, c);
+		Segment ad = new Segment(a, d);
+		Segment de = new Segment(d, e);
+		Segment fg = new Segment(f, g);
+
+		List<Segment> segments = new ArrayList<Segment>(Arrays.asList(ab, bc, ad, de, fg));
+		SegmentGrid grid = new SegmentGrid(segments);
+
+		assertEquals(1.0, grid.getCellSize());
+
+		assertEquals(Arrays.asList(ab, bc, ad), grid.query(ab));
+		assertEquals(Arrays.asList(ab, bc), grid.query(bc));
+		assertEquals(Arrays.asList(fg), grid.query(fg));
+		assertTrue(grid.query(20, 20, 30, 30).isEmpty());
+
+		// Pairwise candidates: later segments only
+		assertEquals(Arrays.toString(new int[] {1, 2}), Arrays.toString(grid.candidatesAfter(0)));
+		assertEquals(Arrays.toString(new int[] {}), Arrays.toString(grid.candidatesAfter(1)));
+		assertEquals(Arrays.toString(new int[] {3}), Arrays.toString(grid.candidatesAfter(2)));
+		assertEquals(Arrays.toString(new int[] {}), Arrays.toString(grid.candidatesAfter(4)));
+
+		// A query covering everything (long segments are all oversized)
+		assertEquals(segments, new SegmentGrid(segments, 0.001).query(-1, -1, 11, 2));
+	}
+
+	/**
+	 *   A-----B-----C
+	 *
+	 * Segments added after construction take the next index; removed
+	 * segments are no longer reported.
+	 */
+	@Test
+	void AddRemoveTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 2, 0);
+
+		Segment ab = new Segment(a, b);
+		Segment bc = new Segment(b, c);
+		Segment ac = new Segment(a, c);
+
+		SegmentGrid grid = new SegmentGrid(new ArrayList<Segment>(Arrays.asList(ab)));
+		assertEquals(1, grid.add(bc));
+		assertEquals(Arrays.asList(ab, bc), grid.query(bc));
+
+		// An oversized segment
+		SegmentGrid fine = new SegmentGrid(new ArrayList<Segment>(Arrays.asList(ab)), 0.001);
+		assertEquals(1, fine.add(ac));
+		assertEquals(Arrays.asList(ab, ac), fine.query(ab));
+		fine.remove(1);
+		assertEquals(Arrays.asList(ab), fine.query(ab));
+
+		grid.remove(0);
+		assertEquals(null, grid.get(0));
+		assertEquals(Arrays.asList(bc), grid.query(ab));
+		assertEquals(2, grid.add(ab));
+		assertEquals(Arrays.asList(bc, ab), grid.query(ab));
+		assertEquals(3, grid.size());
+	}
+}
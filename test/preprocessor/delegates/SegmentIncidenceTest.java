@@ -0,0 +1,43 @@
+package preprocessor.delegates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+public class SegmentIncidenceTest
+{
+	/**
+	 *   C
+	 *   |
+	 *   A-----B
+	 *    \
+	 *     D
+	 */
+	@Test
+	void segmentsAtTest()
+	{
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 1, 0);
+		Point c = new Point("C", 0, 1);
+		Point d = new Point("D", 1, -1);
+
+		Segment ab = new Segment(a, b);
+		Segment ca = new Segment(c, a);
+		Segment ad = new Segment(a, d);
+
+		SegmentIncidence incidence = new SegmentIncidence(Arrays.asList(ab, ca, ad));
+
+		// In the order given; points match within epsilon
+		assertEquals(Arrays.asList(ab, ca, ad), incidence.segmentsAt(a));
+		assertEquals(Arrays.asList(ab, ca, ad), incidence.segmentsAt(new Point(0.0000001, -0.0000001)));
+		assertEquals(Arrays.asList(ab), incidence.segmentsAt(b));
+		assertEquals(Arrays.asList(ca), incidence.segmentsAt(c));
+		assertTrue(incidence.segmentsAt(new Point(5, 5)).isEmpty());
+	}
+}
@@ -0,0 +1,100 @@
+package preprocessor.delegates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.Segment;
+import geometry_objects.points.Point;
+
+public class SegmentStoreTest
+{
+	@Test
+	void pointsTest()
+	{
+		SegmentStore store = new SegmentStore();
+
+		int a = store.addPoint(new Point("A", 0, 0));
+		int b = store.addPoint(new Point("B", 1, 0));
+
+		assertEquals(0, a);
+		assertEquals(1, b);
+
+		// Equal points share an id
+		assertEquals(a, store.addPoint(new Point(0.0000001, 0)));
+		assertEquals(b, store.pointId(1, -0.0000001));
+		assertEquals(-1, store.pointId(2, 2));
+		assertEquals(2, store.pointCount());
+
+		assertEquals(new Point("B", 1, 0), store.point(b));
+		assertEquals("B", store.name(b));
+	}
+
+	@Test
+	void segmentsTest()
+	{
+		SegmentStore store = new SegmentStore();
+
+		int a = store.addPoint(new Point("A", 3, 4));
+		int b = store.addPoint(new Point("B", 0, 0));
+		int c = store.addPoint(new Point("C", 0, 5));
+
+		// Endpoints in lexicographic order, as in Segment
+		int ab = store.addSegment(a, b);
+		assertEquals(b, store.end1(ab));
+		assertEquals(a, store.end2(ab));
+
+		assertEquals(ab, store.addSegment(b, a));
+		assertEquals(ab, store.segmentId(b, a));
+		assertEquals(-1, store.segmentId(b, c));
+
+		int bc = store.addSegment(b, c);
+		assertEquals(2, store.segmentCount());
+		assertEquals(new Segment(new Point(0, 0), new Point(0, 5)), store.segment(bc));
+
+		// Enough segments to grow the tables
+		for (int i = 0; i < 100; i++) store.addSegment(store.addPoint(new Point(i, 10)), store.addPoint(new Point(i, 11)));
+		assertEquals(102, store.segmentCount());
+		assertEquals(ab, store.segmentId(a, b));
+	}
+
+	@Test
+	void asMapTest()
+	{
+		SegmentStore store = new SegmentStore();
+
+		int a = store.addPoint(new Point("A", 0, 0));
+		int b = store.addPoint(new Point("B", 1, 0));
+		int c = store.addPoint(new Point("C", 2, 0));
+		store.addSegment(a, b);
+		store.addSegment(b, c);
+
+		Map<Segment, Segment> map = store.asMap();
+		assertEquals(2, map.size());
+
+		Segment ab = new Segment(new Point(1, 0), new Point(0, 0));
+		assertTrue(map.containsKey(ab));
+		assertEquals(ab, map.get(ab));
+
+		assertFalse(map.containsKey(new Segment(new Point(0, 0), new Point(2, 0))));
+		assertNull(map.get(new Segment(new Point(0, 0), new Point(5, 5))));
+		assertNull(map.get("AB"));
+
+		int count = 0;
+		for (Map.Entry<Segment, Segment> entry : map.entrySet())
+		{
+			assertEquals(entry.getKey(), entry.getValue());
+			count++;
+		}
+		assertEquals(2, count);
+
+		// The view is live
+		store.addSegment(a, c);
+		assertEquals(3, map.size());
+	}
+}
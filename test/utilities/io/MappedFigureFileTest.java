@@ -0,0 +1,63 @@
+package utilities.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class MappedFigureFileTest
+{
+	private static MappedFigureFile of(String text)
+	{
+		return new MappedFigureFile(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String read(Reader reader, int chunk) throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+		char[] buffer = new char[chunk];
+		for (int n = reader.read(buffer); n != -1; n = reader.read(buffer)) builder.append(buffer, 0, n);
+		return builder.toString();
+	}
+
+	private static void check(String text, String expected) throws IOException
+	{
+		MappedFigureFile file = of(text);
+
+		assertEquals(expected, file.toString());
+		assertEquals(expected.length(), file.length());
+
+		// random (backwards) access
+		for (int i = expected.length() - 1; i >= 0; i--) assertEquals(expected.charAt(i), file.charAt(i));
+
+		assertEquals(expected, read(file.reader(), 1));
+		assertEquals(expected, read(file.reader(), 3));
+		assertEquals(expected, read(file.reader(), 4096));
+	}
+
+	@Test
+	void filterTest() throws IOException
+	{
+		check("", "");
+		check("{ }", "{ }");
+		check("// only a comment", "");
+		check("//\n//\n{\n", "\n\n{\n");
+		check("{ \"a\" : 1, // one\n  \"b\" : 2 } // two", "{ \"a\" : 1, \n  \"b\" : 2 } ");
+
+		// Not comments: in a string (even after an escaped quote), a single slash
+		check("{ \"url\" : \"http://x\" } // c\n", "{ \"url\" : \"http://x\" } \n");
+		check("\"a\\\"//b\" // c", "\"a\\\"//b\" ");
+		check("1 / 2", "1 / 2");
+
+		// Non-ASCII text is decoded
+		check("// \u03c0\n\"\u03c0\" // \u221e\n", "\n\"\u03c0\" \n");
+
+		assertThrows(IndexOutOfBoundsException.class, () -> of("a // b").charAt(2));
+		assertEquals("a ", of("a // b").subSequence(0, 2));
+	}
+}
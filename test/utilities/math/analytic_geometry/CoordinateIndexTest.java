@@ -0,0 +1,68 @@
+package utilities.math.analytic_geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.points.Point;
+
+public class CoordinateIndexTest
+{
+	@Test
+	void objectIndexTest()
+	{
+		CoordinateIndex<Point> index = new CoordinateIndex<Point>(Point::getX, Point::getY);
+
+		Point a = new Point("A", 0, 0);
+		Point b = new Point("B", 0.0000005, 0);
+		Point c = new Point("C", 1, 1);
+		index.put(a);
+		index.put(b);
+		index.put(c);
+
+		// The first indexed of equal points; a filter skips points
+		assertSame(a, index.get(0.0000004, 0));
+		assertSame(b, index.get(0.0000004, 0, p -> p != a));
+		assertSame(c, index.get(1, 1.0000001));
+		assertNull(index.get(2, 2));
+
+		// Removal by reference; a reused reference keeps the order of indexing
+		assertTrue(index.remove(a));
+		assertFalse(index.remove(a));
+		assertSame(b, index.get(0.0000004, 0));
+		Point d = new Point("D", 0, 0);
+		index.put(d);
+		assertSame(b, index.get(0.0000004, 0));
+		assertEquals(3, index.size());
+
+		// Enough entries to resize the table and the pool many times
+		for (int i = 0; i < 10000; i++) index.put(new Point(i + 2, i));
+		for (int i = 0; i < 10000; i += 2) assertTrue(index.remove(index.get(i + 2, i)));
+		for (int i = 0; i < 10000; i++) assertEquals(i % 2 == 0, index.get(i + 2, i) == null);
+		assertEquals(5003, index.size());
+
+		index.clear();
+		assertNull(index.get(1, 1));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void intIndexTest()
+	{
+		double[] xs = { 0, 0.0000005, 1 };
+		double[] ys = { 0, 0, 1 };
+		IntCoordinateIndex index = new IntCoordinateIndex(id -> xs[id], id -> ys[id]);
+
+		for (int id = 0; id < xs.length; id++) index.put(id);
+
+		assertEquals(0, index.get(0.0000004, 0));
+		assertEquals(1, index.get(0.0000004, 0, id -> id != 0));
+		assertEquals(2, index.get(1, 1));
+		assertEquals(-1, index.get(2, 2));
+		assertEquals(3, index.size());
+	}
+}
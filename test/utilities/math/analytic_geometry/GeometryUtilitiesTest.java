@@ -0,0 +1,38 @@
+package utilities.math.analytic_geometry;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import geometry_objects.points.Point;
+
+public class GeometryUtilitiesTest
+{
+	@Test
+	void betweenTest()
+	{
+		Point a = new Point(0, 0);
+		Point b = new Point(1000, 1000);
+
+		assertTrue(GeometryUtilities.between(new Point(500, 500), a, b));
+		assertTrue(GeometryUtilities.between(a, a, b));
+		assertTrue(GeometryUtilities.between(b, a, b));
+		assertTrue(GeometryUtilities.between(new Point(500, 500.0000001), a, b));
+
+		// Off the line, even slightly, on a long segment
+		assertFalse(GeometryUtilities.between(new Point(500, 500.001), a, b));
+
+		// On the line, but outside the segment
+		assertFalse(GeometryUtilities.between(new Point(-1, -1), a, b));
+		assertFalse(GeometryUtilities.between(new Point(1000.001, 1000.001), a, b));
+
+		// Not a point
+		assertFalse(GeometryUtilities.between(Double.NaN, 500, a, b));
+		assertFalse(GeometryUtilities.between(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, a, b));
+
+		// Degenerate segment
+		assertTrue(GeometryUtilities.between(a, a, a));
+		assertFalse(GeometryUtilities.between(new Point(1, 0), a, a));
+	}
+}
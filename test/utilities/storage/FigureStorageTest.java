@@ -0,0 +1,46 @@
+package utilities.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class FigureStorageTest
+{
+	private void check(FigureStorage storage)
+	{
+		// Enough records to span several blocks of a DirectStorage
+		int n = 10000;
+		for (int i = 0; i < n; i++)
+		{
+			assertEquals(i, storage.addPoint(i + 0.5, -i, i % 7 - 1));
+			assertEquals(i, storage.addPair(i, n - i));
+		}
+		assertEquals(n, storage.pointCount());
+		assertEquals(n, storage.pairCount());
+
+		for (int i = 0; i < n; i++)
+		{
+			assertEquals(i + 0.5, storage.x(i));
+			assertEquals((double)-i, storage.y(i));
+			assertEquals(i % 7 - 1, storage.name(i));
+			assertEquals(i, storage.first(i));
+			assertEquals(n - i, storage.second(i));
+		}
+
+		storage.setName(5000, 42);
+		assertEquals(42, storage.name(5000));
+		assertEquals(5000.5, storage.x(5000));
+
+		storage.clear();
+		assertEquals(0, storage.pointCount());
+		assertEquals(0, storage.pairCount());
+		assertEquals(0, storage.addPoint(1, 2, 3));
+		assertEquals(2.0, storage.y(0));
+	}
+
+	@Test
+	void heapStorageTest() { check(new HeapStorage()); }
+
+	@Test
+	void directStorageTest() { check(new DirectStorage()); }
+}